@@ -0,0 +1,44 @@
+package com.fivontwov.config;
+
+import com.fivontwov.model.id.IdGenerator;
+import com.fivontwov.model.id.IdGenerators;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Id generation for Topic / Comment / TopicVote (@SnowflakeId).
+ *
+ * Node id (0..31) được lease trong DB bởi {@link SnowflakeNodeLease}, nên hai instance không thể dùng trùng,
+ * kể cả khi scale nhiều replica. forum.id.node-id=-1 lấy node id trống bất kỳ; đặt giá trị cố định
+ * (ví dụ từ ordinal của StatefulSet) để mỗi pod luôn giữ cùng một node id.
+ * Muốn dùng chiến lược khác thì khai báo một bean IdGenerator riêng.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public SnowflakeNodeLease snowflakeNodeLease(JdbcTemplate jdbcTemplate,
+                                                 @Value("${forum.id.node-id:-1}") int nodeId,
+                                                 @Value("${forum.id.lease-ttl-ms:30000}") long leaseTtlMs) {
+        return new SnowflakeNodeLease(jdbcTemplate, nodeId, Duration.ofMillis(leaseTtlMs));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public IdGenerator snowflakeIdGenerator(SnowflakeNodeLease lease) {
+        return lease.acquire();
+    }
+
+    // Hibernate creates SnowflakeIdentifierGenerator itself; hand it whichever IdGenerator bean is active
+    @Bean
+    public InitializingBean idGeneratorInstaller(IdGenerator idGenerator) {
+        return () -> IdGenerators.install(idGenerator);
+    }
+}
@@ -0,0 +1,175 @@
+package com.fivontwov.config;
+
+import com.fivontwov.model.id.IdGenerator;
+import com.fivontwov.model.id.SnowflakeIdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Lease trên bảng snowflake_node_leases để hai forum instance không bao giờ dùng chung một node id.
+ *
+ * - forum.id.node-id=-1: lấy node id đã trống lâu nhất; hết node id trống thì không khởi động
+ * - forum.id.node-id=N: chỉ lấy N; nếu đang bị giữ (vd. instance cũ vừa crash) thì chờ tối đa một TTL rồi báo lỗi
+ *
+ * Lease được gia hạn định kỳ cùng millisecond cuối cùng đã cấp (last_millis). Generator có thể chạy trước
+ * đồng hồ khi burst dùng hết sequence, nên instance nhận lại node id bắt đầu sau last_millis chứ không chỉ
+ * sau thời điểm hiện tại. Không gia hạn được trước khi lease hết hạn thì ngừng cấp id thay vì có thể cấp trùng.
+ */
+@Slf4j
+public class SnowflakeNodeLease {
+
+    private static final String[] DDL = {
+            "CREATE TABLE IF NOT EXISTS snowflake_node_leases ("
+                    + "node_id INT PRIMARY KEY, owner VARCHAR(255), last_millis BIGINT NOT NULL DEFAULT 0, "
+                    + "expires_at TIMESTAMPTZ NOT NULL DEFAULT '-infinity')",
+            "INSERT INTO snowflake_node_leases (node_id) SELECT generate_series(0, "
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ") ON CONFLICT DO NOTHING"
+    };
+
+    // requested < 0: any free node id, least recently held first
+    private static final String CLAIM_SQL =
+            "WITH candidate AS ("
+                    + "  SELECT node_id FROM snowflake_node_leases"
+                    + "  WHERE expires_at < now() AND (? < 0 OR node_id = ?)"
+                    + "  ORDER BY expires_at LIMIT 1 FOR UPDATE SKIP LOCKED) "
+                    + "UPDATE snowflake_node_leases l SET owner = ?, expires_at = now() + make_interval(secs => ?) "
+                    + "FROM candidate c WHERE l.node_id = c.node_id "
+                    + "RETURNING l.node_id, l.last_millis";
+
+    private static final String RENEW_SQL =
+            "UPDATE snowflake_node_leases SET expires_at = now() + make_interval(secs => ?), "
+                    + "last_millis = GREATEST(last_millis, ?) WHERE node_id = ? AND owner = ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE snowflake_node_leases SET expires_at = now(), last_millis = GREATEST(last_millis, ?) "
+                    + "WHERE node_id = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int requestedNodeId;
+    private final Duration ttl;
+    private final String owner;
+
+    private int nodeId = -1;
+    private SnowflakeIdGenerator generator;
+    private volatile long heldUntilNanos;
+
+    public SnowflakeNodeLease(JdbcTemplate jdbcTemplate, int requestedNodeId, Duration ttl) {
+        if (requestedNodeId > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalArgumentException(
+                    "forum.id.node-id must be between 0 and " + SnowflakeIdGenerator.MAX_NODE_ID + ": " + requestedNodeId);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.requestedNodeId = requestedNodeId;
+        this.ttl = ttl;
+        this.owner = hostname() + "/" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * Claim a node id and return a generator that starts past the last millisecond issued under it.
+     */
+    public synchronized IdGenerator acquire() {
+        createTable();
+
+        long deadline = System.nanoTime() + (requestedNodeId >= 0 ? ttl.toNanos() : 0);
+        while (true) {
+            long startedAt = System.nanoTime();
+            List<long[]> claimed = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, rowNum) -> new long[]{rs.getInt("node_id"), rs.getLong("last_millis")},
+                    requestedNodeId, requestedNodeId, owner, seconds(ttl));
+            if (!claimed.isEmpty()) {
+                nodeId = (int) claimed.get(0)[0];
+                generator = new SnowflakeIdGenerator(nodeId, claimed.get(0)[1]);
+                heldUntilNanos = startedAt + ttl.toNanos();
+                log.info("Snowflake id generator leased node id {} (owner {})", nodeId, owner);
+                return this::nextId;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException(requestedNodeId >= 0
+                        ? "Snowflake node id " + requestedNodeId + " is leased by another instance"
+                        : "All Snowflake node ids (0.." + SnowflakeIdGenerator.MAX_NODE_ID + ") are leased");
+            }
+            sleep(Duration.ofSeconds(1));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${forum.id.lease-renew-ms:10000}")
+    public void renew() {
+        if (generator == null) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            int updated = jdbcTemplate.update(RENEW_SQL, seconds(ttl), generator.lastIssuedMillis(), nodeId, owner);
+            if (updated == 1) {
+                heldUntilNanos = startedAt + ttl.toNanos();
+            } else {
+                heldUntilNanos = startedAt;
+                log.error("Lost the lease on Snowflake node id {}, no more ids will be issued", nodeId);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to renew the lease on Snowflake node id {}", nodeId, e);
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (generator == null) {
+            return;
+        }
+        heldUntilNanos = System.nanoTime();
+        try {
+            jdbcTemplate.update(RELEASE_SQL, generator.lastIssuedMillis(), nodeId, owner);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release Snowflake node id {}, it frees up when the lease expires", nodeId, e);
+        }
+    }
+
+    private long nextId() {
+        if (System.nanoTime() - heldUntilNanos > 0) {
+            // Another instance may hold this node id by now
+            throw new IllegalStateException("Lease on Snowflake node id " + nodeId + " has expired");
+        }
+        return generator.nextId();
+    }
+
+    private void createTable() {
+        for (String ddl : DDL) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (DuplicateKeyException e) {
+                // Another instance created the table at the same moment
+                log.debug("snowflake_node_leases created concurrently", e);
+            }
+        }
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Snowflake node id", e);
+        }
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return System.getenv().getOrDefault("HOSTNAME", "localhost");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.fivontwov.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: JpaTransactionManager asks for the connection
+ * before it publishes the read-only flag of the new transaction, the lazy proxy delays the real
+ * lookup until the first statement, when the flag is visible.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaHealthChecker replicas;
+
+    ReplicaRoutingDataSource(DataSource primary, ReplicaHealthChecker replicas) {
+        this.replicas = replicas;
+
+        Map<Object, Object> targets = new HashMap<>(replicas.dataSources());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReplicaRoutingContext.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReplicaRoutingContext.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        // No replica within the lag limit: fall back to the primary
+        String replica = replicas.pick();
+        return replica != null ? replica : PRIMARY;
+    }
+}
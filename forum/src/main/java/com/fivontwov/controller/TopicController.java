@@ -6,6 +6,7 @@ import com.fivontwov.model.Topic;
 import com.fivontwov.repo.CommentRepository;
 import com.fivontwov.repo.TopicRepository;
 import com.fivontwov.service.TopicService;
+import com.fivontwov.websocket.dto.CommentDelta;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -41,6 +42,11 @@ public class TopicController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/hot")
+    public ResponseEntity<List<TopicSummary>> getHotTopics(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(topicService.getHotTopics(limit));
+    }
+
     @GetMapping("/{topicId}")
     public ResponseEntity<TopicWithUserDTO> getTopic(@PathVariable Long topicId) {
         return topicService.getTopicWithUser(topicId)
@@ -49,13 +55,35 @@ public class TopicController {
     }
 
     @GetMapping
-    public ResponseEntity<List<TopicWithUserDTO>> getAllTopics() {
-        return ResponseEntity.ok(topicService.getAllTopicsWithUser());
+    public ResponseEntity<CursorPage<TopicSummary>> getAllTopics(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(topicService.getAllTopicsWithUser(cursor, limit));
     }
 
     @GetMapping("/{topicId}/comments")
-    public ResponseEntity<List<CommentWithUserDTO>> listComments(@PathVariable Long topicId) {
-        return ResponseEntity.ok(topicService.getCommentsWithUser(topicId));
+    public ResponseEntity<CursorPage<CommentSummary>> listComments(
+            @PathVariable Long topicId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(topicService.getCommentsWithUser(topicId, cursor, limit));
+    }
+
+    @GetMapping("/{topicId}/comments/since")
+    public ResponseEntity<CursorPage<CommentDelta>> getCommentsSince(
+            @PathVariable Long topicId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(topicService.getCommentsSince(topicId, afterId, cursor, limit));
+    }
+
+    @GetMapping("/{topicId}/comments/tree")
+    public ResponseEntity<List<CommentTreeNodeDTO>> getCommentTree(
+            @PathVariable Long topicId,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(required = false) List<Long> collapsed) {
+        return ResponseEntity.ok(topicService.getCommentTree(topicId, maxDepth, collapsed));
     }
 
     @DeleteMapping("/{topicId}")
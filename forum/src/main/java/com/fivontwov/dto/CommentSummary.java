@@ -0,0 +1,40 @@
+package com.fivontwov.dto;
+
+import com.fivontwov.repo.projection.CommentSummaryRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Comment as shown in the paged list (GET /topics/{topicId}/comments). Long bodies are cut to a
+ * snippet; the full text comes from GET /topics/{topicId}/comments/{commentId} or the comment tree.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentSummary {
+    private Long id;
+    private Long topicId;
+    private Long parentCommentId;
+    private Long userId;
+    private String snippet;
+    // true when snippet is shorter than the body
+    private boolean truncated;
+    private Instant createdAt;
+    private UserDTO creator;
+
+    public static CommentSummary fromRow(CommentSummaryRow row, int snippetLength, UserDTO creator) {
+        CommentSummary dto = new CommentSummary();
+        dto.setId(row.getId());
+        dto.setTopicId(row.getTopicId());
+        dto.setParentCommentId(row.getParentCommentId());
+        dto.setUserId(row.getUserId());
+        dto.setSnippet(Snippets.of(row.getBodyHead(), snippetLength));
+        dto.setTruncated(Snippets.isTruncated(row.getBodyHead(), snippetLength));
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setCreator(creator);
+        return dto;
+    }
+}
@@ -0,0 +1,46 @@
+package com.fivontwov.dto;
+
+import com.fivontwov.repo.projection.CommentTreeRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node trong cây comment của một topic.
+ * collapsed = true khi node có reply nhưng không được trả về (bị thu gọn hoặc vượt quá maxDepth),
+ * client dùng childCount để hiển thị "xem thêm N trả lời".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentTreeNodeDTO {
+    private Long id;
+    private Long topicId;
+    private Long parentCommentId;
+    private Long userId;
+    private String body;
+    private Instant createdAt;
+    private UserDTO creator;
+    private int depth;
+    private long childCount;
+    private boolean collapsed;
+    private List<CommentTreeNodeDTO> replies = new ArrayList<>();
+
+    public static CommentTreeNodeDTO fromRow(CommentTreeRow row, UserDTO creator) {
+        CommentTreeNodeDTO dto = new CommentTreeNodeDTO();
+        dto.setId(row.getId());
+        dto.setTopicId(row.getTopicId());
+        dto.setParentCommentId(row.getParentCommentId());
+        dto.setUserId(row.getUserId());
+        dto.setBody(row.getBody());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setCreator(creator);
+        dto.setDepth(row.getDepth());
+        dto.setChildCount(row.getChildCount());
+        return dto;
+    }
+}
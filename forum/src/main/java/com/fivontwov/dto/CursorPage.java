@@ -0,0 +1,20 @@
+package com.fivontwov.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ * nextCursor là token opaque, gửi lại qua ?cursor= để lấy trang tiếp theo; null khi đã hết dữ liệu.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
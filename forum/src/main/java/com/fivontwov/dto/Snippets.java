@@ -0,0 +1,25 @@
+package com.fivontwov.dto;
+
+/**
+ * Server-side snippet for list responses. The database already returns at most
+ * {@code length + 1} characters, so this only decides whether an ellipsis is needed.
+ * PostgreSQL counts characters as code points, so lengths here are code points too, not UTF-16 units.
+ */
+final class Snippets {
+
+    private static final String ELLIPSIS = "…";
+
+    private Snippets() {
+    }
+
+    static boolean isTruncated(String head, int length) {
+        return head != null && head.codePointCount(0, head.length()) > length;
+    }
+
+    static String of(String head, int length) {
+        if (!isTruncated(head, length)) {
+            return head;
+        }
+        return head.substring(0, head.offsetByCodePoints(0, length)).stripTrailing() + ELLIPSIS;
+    }
+}
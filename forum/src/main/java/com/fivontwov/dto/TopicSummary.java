@@ -0,0 +1,47 @@
+package com.fivontwov.dto;
+
+import com.fivontwov.repo.projection.TopicSummaryRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Topic as shown in lists (GET /topics, GET /topics/hot). The body is replaced by a short
+ * snippet; the full text is only returned by GET /topics/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicSummary {
+    private Long id;
+    private Long userId;
+    private String title;
+    private String snippet;
+    // true when snippet is shorter than the body
+    private boolean truncated;
+    private Instant createdAt;
+    private long upvotes;
+    private long downvotes;
+    private long score;
+    // Open sessions viewing the topic right now (all forum nodes)
+    private int viewers;
+    private UserDTO creator;
+
+    public static TopicSummary fromRow(TopicSummaryRow row, int snippetLength, UserDTO creator, int viewers) {
+        TopicSummary dto = new TopicSummary();
+        dto.setId(row.getId());
+        dto.setUserId(row.getUserId());
+        dto.setTitle(row.getTitle());
+        dto.setSnippet(Snippets.of(row.getBodyHead(), snippetLength));
+        dto.setTruncated(Snippets.isTruncated(row.getBodyHead(), snippetLength));
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpvotes(row.getUpvotes() != null ? row.getUpvotes() : 0);
+        dto.setDownvotes(row.getDownvotes() != null ? row.getDownvotes() : 0);
+        dto.setScore(row.getScore() != null ? row.getScore() : 0);
+        dto.setViewers(viewers);
+        dto.setCreator(creator);
+        return dto;
+    }
+}
@@ -16,15 +16,24 @@ public class TopicWithUserDTO {
     private String title;
     private String body;
     private Instant createdAt;
+    private long upvotes;
+    private long downvotes;
+    private long score;
+    // Open sessions viewing the topic right now (all forum nodes)
+    private int viewers;
     private UserDTO creator;
 
-    public static TopicWithUserDTO fromTopic(Topic topic, UserDTO creator) {
+    public static TopicWithUserDTO fromTopic(Topic topic, UserDTO creator, int viewers) {
         TopicWithUserDTO dto = new TopicWithUserDTO();
         dto.setId(topic.getId());
         dto.setUserId(topic.getUserId());
         dto.setTitle(topic.getTitle());
         dto.setBody(topic.getBody());
         dto.setCreatedAt(topic.getCreatedAt());
+        dto.setUpvotes(topic.getUpvotes());
+        dto.setDownvotes(topic.getDownvotes());
+        dto.setScore(topic.getScore());
+        dto.setViewers(viewers);
         dto.setCreator(creator);
         return dto;
     }
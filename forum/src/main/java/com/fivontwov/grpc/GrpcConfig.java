@@ -49,4 +49,9 @@ public class GrpcConfig {
     public UserServiceGrpc.UserServiceBlockingStub userServiceStub(ManagedChannel userChannel) {
         return UserServiceGrpc.newBlockingStub(userChannel);
     }
+
+    @Bean
+    public UserServiceGrpc.UserServiceFutureStub userServiceFutureStub(ManagedChannel userChannel) {
+        return UserServiceGrpc.newFutureStub(userChannel);
+    }
 }
@@ -2,34 +2,232 @@ package com.fivontwov.grpc;
 import com.fivontwov.user.proto.UserRequest;
 import com.fivontwov.user.proto.UserResponse;
 import com.fivontwov.user.proto.UserServiceGrpc;
+import com.fivontwov.user.proto.UsersByIdsRequest;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Client gọi User Service (study-management) qua gRPC, có near-cache in-process phía trước stub.
+ *
+ * - Giới hạn số entry (LRU/TinyLFU), hết hạn theo TTL
+ * - Refresh-ahead: entry cũ hơn refresh-after được nạp lại nền, request vẫn nhận giá trị đang có
+ * - NOT_FOUND được cache (negative) với TTL ngắn hơn
+ * - Lỗi khác (UNAVAILABLE, DEADLINE...) không được cache; khi refresh lỗi thì giữ giá trị cũ
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserGrpcClient {
+
+    private static final String CACHE_NAME = "forum.users";
+
     @GrpcClient("STUDY-MANAGEMENT-SERVICE")
     private final UserServiceGrpc.UserServiceBlockingStub userStub;
 
+    @GrpcClient("STUDY-MANAGEMENT-SERVICE")
+    private final UserServiceGrpc.UserServiceFutureStub userFutureStub;
+
+    private final Duration asyncDeadline;
+
+    private final UserLoader userLoader = new UserLoader();
+
+    private final LoadingCache<Long, Optional<UserResponse>> userCache;
+
+    public UserGrpcClient(UserServiceGrpc.UserServiceBlockingStub userStub,
+                          UserServiceGrpc.UserServiceFutureStub userFutureStub,
+                          MeterRegistry meterRegistry,
+                          @Value("${forum.user-grpc.async-deadline:2s}") Duration asyncDeadline,
+                          @Value("${forum.user-cache.max-size:10000}") long maxSize,
+                          @Value("${forum.user-cache.ttl:10m}") Duration ttl,
+                          @Value("${forum.user-cache.refresh-after:2m}") Duration refreshAfter,
+                          @Value("${forum.user-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.userStub = userStub;
+        this.userFutureStub = userFutureStub;
+        this.asyncDeadline = asyncDeadline;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UserExpiry(ttl, negativeTtl))
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(userLoader);
+
+        // cache_gets{result=hit|miss}, cache_evictions, cache_size... trên /actuator/prometheus
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, CACHE_NAME);
+    }
+
     public Optional<UserResponse> getUserById(long id) {
+        Optional<UserResponse> cached = userCache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            if (!onVirtualThread()) {
+                // Platform thread: let the cache load, so concurrent misses for one id share a single RPC
+                return userCache.get(id);
+            }
+            // Virtual thread: userCache.get(id) runs the blocking RPC inside ConcurrentHashMap.compute,
+            // i.e. under a bin monitor, which pins the carrier. Load outside the cache instead
+            // (concurrent misses for the same id are not coalesced on this path)
+            Optional<UserResponse> loaded = userLoader.load(id);
+            userCache.put(id, loaded);
+            return loaded;
+
+        } catch (RuntimeException e) {
+            log.error("Error calling UserService.getUserById, id={}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getUserById(long)} built on the future stub.
+     * Cache hits complete immediately; misses are loaded over gRPC and written back to the cache.
+     * Like the blocking variant, the future never fails: errors complete it with an empty Optional.
+     */
+    public CompletableFuture<Optional<UserResponse>> getUserByIdAsync(long id) {
+        Optional<UserResponse> cached = userCache.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
         UserRequest request = UserRequest.newBuilder()
                 .setId(id)
                 .build();
 
+        CompletableFuture<Optional<UserResponse>> result = new CompletableFuture<>();
+        Futures.addCallback(
+                userFutureStub.withDeadlineAfter(asyncDeadline.toMillis(), TimeUnit.MILLISECONDS)
+                        .getUserById(request),
+                new FutureCallback<>() {
+                    @Override
+                    public void onSuccess(UserResponse user) {
+                        Optional<UserResponse> loaded = Optional.of(user);
+                        userCache.put(id, loaded);
+                        result.complete(loaded);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        if (Status.fromThrowable(t).getCode() == Status.Code.NOT_FOUND) {
+                            userCache.put(id, Optional.empty());
+                        } else {
+                            log.error("Error calling UserService.getUserById (async), id={}", id, t);
+                        }
+                        result.complete(Optional.empty());
+                    }
+                },
+                MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /**
+     * Resolve many users in a single round trip.
+     * Cached ids are served from memory, only the misses go over the wire.
+     * Duplicate ids are collapsed; ids that do not exist are absent from the returned map.
+     */
+    public Map<Long, UserResponse> getUsersByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, Optional<UserResponse>> cached;
         try {
-            UserResponse response = userStub.getUserById(request);
-            return Optional.of(response);
+            cached = userCache.getAll(uniqueIds);
 
-        } catch (StatusRuntimeException e) {
-            log.error("Error calling UserService.getUserById, id={}", id, e);
-            return Optional.empty();
+        } catch (RuntimeException e) {
+            log.error("Error calling UserService.getUsersByIds, count={}", uniqueIds.size(), e);
+            // Study-management không phản hồi: trả về những gì đang có trong cache
+            cached = userCache.getAllPresent(uniqueIds);
+        }
+
+        Map<Long, UserResponse> users = new HashMap<>();
+        cached.forEach((id, user) -> user.ifPresent(u -> users.put(id, u)));
+        return users;
+    }
+
+    // Thread.isVirtual() is Java 21 API and the default build targets 17; virtual threads are java.lang.VirtualThread
+    private static boolean onVirtualThread() {
+        return "java.lang.VirtualThread".equals(Thread.currentThread().getClass().getName());
+    }
+
+    private class UserLoader implements CacheLoader<Long, Optional<UserResponse>> {
+
+        @Override
+        public Optional<UserResponse> load(Long id) {
+            UserRequest request = UserRequest.newBuilder()
+                    .setId(id)
+                    .build();
+
+            try {
+                return Optional.of(userStub.getUserById(request));
+
+            } catch (StatusRuntimeException e) {
+                if (e.getStatus().getCode() == Status.Code.NOT_FOUND) {
+                    return Optional.empty();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public Map<Long, Optional<UserResponse>> loadAll(Set<? extends Long> ids) {
+            UsersByIdsRequest request = UsersByIdsRequest.newBuilder()
+                    .addAllIds(ids)
+                    .build();
+
+            Map<Long, Optional<UserResponse>> loaded = new HashMap<>();
+            for (Long id : ids) {
+                loaded.put(id, Optional.empty());
+            }
+            for (UserResponse user : userStub.getUsersByIds(request).getUsersList()) {
+                loaded.put(user.getId(), Optional.of(user));
+            }
+            return loaded;
+        }
+    }
+
+    private record UserExpiry(Duration ttl, Duration negativeTtl)
+            implements Expiry<Long, Optional<UserResponse>> {
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<UserResponse> user, long currentTime) {
+            return (user.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<UserResponse> user, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(id, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<UserResponse> user, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,31 @@
+package com.fivontwov.kafka;
+
+import com.fivontwov.event.CommentCreatedEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kafka value serializer cho forum.comment.created: protobuf thay cho JSON.
+ * Gắn header content-type để consumer phân biệt với message JSON cũ còn trong topic.
+ */
+public class CommentCreatedEventSerializer implements Serializer<CommentCreatedEvent> {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String PROTOBUF_CONTENT_TYPE = "application/x-protobuf";
+
+    private static final byte[] PROTOBUF_CONTENT_TYPE_BYTES = PROTOBUF_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    public byte[] serialize(String topic, CommentCreatedEvent event) {
+        return event == null ? null : CommentEventCodec.toProto(event).toByteArray();
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, CommentCreatedEvent event) {
+        headers.remove(CONTENT_TYPE_HEADER);
+        headers.add(CONTENT_TYPE_HEADER, PROTOBUF_CONTENT_TYPE_BYTES);
+        return serialize(topic, event);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fivontwov.kafka;
+
+import com.fivontwov.event.CommentCreatedEvent;
+import com.fivontwov.event.proto.CommentCreated;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Chuyển CommentCreatedEvent <-> protobuf CommentCreated.
+ * Trường null được bỏ qua (không tốn byte nào trên wire).
+ */
+public final class CommentEventCodec {
+
+    private CommentEventCodec() {
+    }
+
+    public static CommentCreated toProto(CommentCreatedEvent event) {
+        CommentCreated.Builder b = CommentCreated.newBuilder()
+                .setCommentId(event.getCommentId())
+                .setTopicId(event.getTopicId())
+                .setCommenterId(event.getCommenterId());
+        if (event.getCommenterEmail() != null) b.setCommenterEmail(event.getCommenterEmail());
+        if (event.getCommenterName() != null) b.setCommenterName(event.getCommenterName());
+        if (event.getTopicCreatorId() != null) b.setTopicCreatorId(event.getTopicCreatorId());
+        if (event.getTopicCreatorEmail() != null) b.setTopicCreatorEmail(event.getTopicCreatorEmail());
+        if (event.getParentCommentId() != null) b.setParentCommentId(event.getParentCommentId());
+        if (event.getParentCommentCreatorId() != null) b.setParentCommentCreatorId(event.getParentCommentCreatorId());
+        if (event.getParentCommentCreatorEmail() != null) b.setParentCommentCreatorEmail(event.getParentCommentCreatorEmail());
+        if (event.getCommentBody() != null) b.setCommentBody(event.getCommentBody());
+        if (event.getCreatedAt() != null) {
+            b.setCreatedAtEpochMillis(event.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        if (event.getTopicTitle() != null) b.setTopicTitle(event.getTopicTitle());
+        return b.build();
+    }
+
+    public static CommentCreatedEvent fromProto(CommentCreated proto) {
+        CommentCreatedEvent event = new CommentCreatedEvent();
+        event.setCommentId(proto.getCommentId());
+        event.setTopicId(proto.getTopicId());
+        event.setCommenterId(proto.getCommenterId());
+        event.setCommenterEmail(proto.getCommenterEmail());
+        event.setCommenterName(proto.getCommenterName());
+        event.setTopicCreatorId(proto.hasTopicCreatorId() ? proto.getTopicCreatorId() : null);
+        event.setTopicCreatorEmail(proto.hasTopicCreatorEmail() ? proto.getTopicCreatorEmail() : null);
+        event.setParentCommentId(proto.hasParentCommentId() ? proto.getParentCommentId() : null);
+        event.setParentCommentCreatorId(proto.hasParentCommentCreatorId() ? proto.getParentCommentCreatorId() : null);
+        event.setParentCommentCreatorEmail(proto.hasParentCommentCreatorEmail() ? proto.getParentCommentCreatorEmail() : null);
+        event.setCommentBody(proto.getCommentBody());
+        event.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(proto.getCreatedAtEpochMillis()), ZoneOffset.UTC));
+        event.setTopicTitle(proto.getTopicTitle());
+        return event;
+    }
+}
@@ -0,0 +1,44 @@
+package com.fivontwov.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fivontwov.event.CommentCreatedEvent;
+import com.fivontwov.model.OutboxEvent;
+import com.fivontwov.repo.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Ghi CommentCreatedEvent vào outbox thay vì gửi thẳng lên Kafka.
+ * Bắt buộc chạy trong transaction của caller: event chỉ tồn tại nếu comment được commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(CommentCreatedEvent event) {
+        OutboxEvent row = new OutboxEvent();
+        row.setTopic(KafkaProducerService.COMMENT_CREATED_TOPIC);
+        row.setEventKey(event.getCommentId().toString());
+        row.setPayload(write(event));
+        outboxEventRepository.save(row);
+    }
+
+    CommentCreatedEvent read(OutboxEvent row) throws JsonProcessingException {
+        return objectMapper.readValue(row.getPayload(), CommentCreatedEvent.class);
+    }
+
+    private String write(CommentCreatedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize comment event " + event.getCommentId(), e);
+        }
+    }
+}
@@ -1,50 +1,73 @@
 package com.fivontwov.kafka;
 
 import com.fivontwov.event.CommentCreatedEvent;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Service để gửi messages qua Kafka
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class KafkaProducerService {
     
     // Topic name cho comment events
     public static final String COMMENT_CREATED_TOPIC = "forum.comment.created";
     
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    // Own producer for this topic: only it uses CommentCreatedEventSerializer (protobuf), the
+    // auto-configured KafkaTemplate keeps the shared value-serializer for every other payload.
+    // Not a bean, since a KafkaTemplate/ProducerFactory bean would replace the auto-configured ones
+    private final KafkaTemplate<String, CommentCreatedEvent> commentEventKafkaTemplate;
+
+    public KafkaProducerService(KafkaProperties kafkaProperties, ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CommentCreatedEventSerializer.class);
+        this.commentEventKafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+
+    @PreDestroy
+    public void close() {
+        commentEventKafkaTemplate.destroy();
+    }
     
     /**
      * Gửi event khi có comment mới được tạo
      * 
+     * @param key   Kafka key (outbox event_key = commentId)
      * @param event CommentCreatedEvent chứa thông tin comment
+     * @return future hoàn thành khi broker xác nhận (dùng bởi OutboxRelay để đánh dấu đã gửi)
      */
-    public void sendCommentCreatedEvent(CommentCreatedEvent event) {
-        log.info("Sending comment created event to Kafka: commentId={}, topicId={}", 
+    public CompletableFuture<SendResult<String, CommentCreatedEvent>> sendCommentCreatedEvent(String key, CommentCreatedEvent event) {
+        log.debug("Sending comment created event to Kafka: commentId={}, topicId={}", 
                 event.getCommentId(), event.getTopicId());
         
         try {
             // Gửi event vào Kafka topic
             // Key = commentId (để Kafka biết partition nào lưu message này)
-            // Value = event object (sẽ được convert thành JSON tự động)
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(
+            // Value = event object (CommentCreatedEventSerializer mã hóa thành protobuf)
+            CompletableFuture<SendResult<String, CommentCreatedEvent>> future = commentEventKafkaTemplate.send(
                 COMMENT_CREATED_TOPIC,
-                event.getCommentId().toString(),
+                key,
                 event
             );
             
             // Log khi gửi thành công
             future.whenComplete((result, ex) -> {
                 if (ex == null) {
-                    log.info("Successfully sent comment event to Kafka: " +
+                    log.debug("Successfully sent comment event to Kafka: " +
                             "topic={}, partition={}, offset={}", 
                             result.getRecordMetadata().topic(),
                             result.getRecordMetadata().partition(),
@@ -54,10 +77,12 @@ public class KafkaProducerService {
                             event.getCommentId(), ex);
                 }
             });
+            return future;
             
         } catch (Exception e) {
             log.error("Error sending comment event to Kafka: commentId={}", 
                     event.getCommentId(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
 }
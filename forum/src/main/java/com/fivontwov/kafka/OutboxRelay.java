@@ -0,0 +1,184 @@
+package com.fivontwov.kafka;
+
+import com.fivontwov.event.CommentCreatedEvent;
+import com.fivontwov.model.OutboxEvent;
+import com.fivontwov.repo.OutboxEventRepository;
+import com.fivontwov.repo.projection.OutboxBacklog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background relay: đọc outbox theo batch, gửi lên Kafka và đánh dấu sent_at khi broker xác nhận.
+ *
+ * Mỗi lượt chạy trong một transaction, khóa batch bằng FOR UPDATE SKIP LOCKED. Record được gửi
+ * bất đồng bộ cùng lúc (producer tự gom batch) rồi chờ tất cả ack; row gửi lỗi giữ nguyên
+ * sent_at = null và được thử lại sau một khoảng backoff tăng gấp đôi (at-least-once, consumer nên
+ * idempotent theo commentId). Row không decode được, hoặc đã lỗi max-attempts lần, chuyển sang
+ * dead letter (dead_at) và không còn chặn đầu hàng đợi; gửi lại bằng tay:
+ * UPDATE outbox_events SET dead_at = NULL, attempts = 0, next_attempt_at = NULL WHERE id = ...
+ *
+ * Metrics: forum.outbox.pending, forum.outbox.lag.seconds (tuổi của event cũ nhất chưa gửi),
+ * forum.outbox.dead, forum.outbox.sent, forum.outbox.failed.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final CommentEventOutbox commentEventOutbox;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Duration maxBackoff;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       CommentEventOutbox commentEventOutbox,
+                       KafkaProducerService kafkaProducerService,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${forum.outbox.batch-size:500}") int batchSize,
+                       @Value("${forum.outbox.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${forum.outbox.retention:1d}") Duration retention,
+                       @Value("${forum.outbox.max-attempts:20}") int maxAttempts,
+                       @Value("${forum.outbox.max-backoff:5m}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.commentEventOutbox = commentEventOutbox;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoff = maxBackoff;
+
+        meterRegistry.gauge("forum.outbox.pending", pending);
+        meterRegistry.gauge("forum.outbox.lag.seconds", lagSeconds);
+        meterRegistry.gauge("forum.outbox.dead", dead);
+        this.sentCounter = meterRegistry.counter("forum.outbox.sent");
+        this.failedCounter = meterRegistry.counter("forum.outbox.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${forum.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            BatchOutcome outcome;
+            // Drain full batches back to back. Failed rows are backing off and not picked again in this pass;
+            // a batch where nothing was acknowledged means the broker is down, so wait for the next tick
+            do {
+                outcome = transactionTemplate.execute(status -> relayBatch());
+            } while (outcome != null && outcome.locked() == batchSize && outcome.sent() > 0);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay pass failed", e);
+        } finally {
+            refreshBacklogMetrics();
+        }
+    }
+
+    private BatchOutcome relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return new BatchOutcome(0, 0);
+        }
+
+        Map<Long, CompletableFuture<?>> sends = new LinkedHashMap<>();
+        List<Long> failed = new ArrayList<>();
+        List<Long> poison = new ArrayList<>();
+        for (OutboxEvent row : batch) {
+            CommentCreatedEvent event;
+            try {
+                event = commentEventOutbox.read(row);
+            } catch (Exception e) {
+                // Retrying cannot fix an undecodable payload
+                log.error("Dead-lettering undecodable outbox event id={}", row.getId(), e);
+                poison.add(row.getId());
+                continue;
+            }
+            try {
+                String key = row.getEventKey() != null ? row.getEventKey() : String.valueOf(event.getCommentId());
+                sends.put(row.getId(), kafkaProducerService.sendCommentCreatedEvent(key, event));
+            } catch (Exception e) {
+                log.error("Cannot relay outbox event id={}", row.getId(), e);
+                failed.add(row.getId());
+            }
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> sent = new ArrayList<>(sends.size());
+        for (Map.Entry<Long, CompletableFuture<?>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sent.add(send.getKey());
+            } catch (ExecutionException | TimeoutException e) {
+                failed.add(send.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(send.getKey());
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            outboxEventRepository.markSent(sent, Instant.now());
+        }
+        if (!failed.isEmpty()) {
+            outboxEventRepository.recordFailure(failed, maxAttempts, maxBackoff.toSeconds());
+        }
+        if (!poison.isEmpty()) {
+            outboxEventRepository.markDead(poison, Instant.now());
+        }
+        sentCounter.increment(sent.size());
+        failedCounter.increment(failed.size() + poison.size());
+        return new BatchOutcome(batch.size(), sent.size());
+    }
+
+    @Scheduled(fixedDelayString = "${forum.outbox.cleanup-interval-ms:600000}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteSentBefore(Instant.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} relayed outbox events", deleted);
+        }
+    }
+
+    private void refreshBacklogMetrics() {
+        try {
+            OutboxBacklog backlog = outboxEventRepository.findBacklog();
+            pending.set(backlog.getPending() == null ? 0 : backlog.getPending());
+            dead.set(backlog.getDead() == null ? 0 : backlog.getDead());
+            lagSeconds.set(backlog.getOldestCreatedAt() == null
+                    ? 0
+                    : Math.max(0, Duration.between(backlog.getOldestCreatedAt(), Instant.now()).getSeconds()));
+        } catch (RuntimeException e) {
+            log.warn("Cannot read outbox backlog", e);
+        }
+    }
+
+    private record BatchOutcome(int locked, int sent) {
+    }
+}
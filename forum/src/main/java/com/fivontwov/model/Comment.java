@@ -1,5 +1,6 @@
 package com.fivontwov.model;
 
+import com.fivontwov.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -7,13 +8,17 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_topic_created_at_id", columnList = "topic_id, created_at, id"),
+        @Index(name = "idx_comments_parent_comment_id", columnList = "parent_comment_id"),
+        @Index(name = "idx_comments_topic_id_id", columnList = "topic_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "topic_id", nullable = false)
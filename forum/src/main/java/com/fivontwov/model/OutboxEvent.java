@@ -0,0 +1,55 @@
+package com.fivontwov.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Transactional outbox row: an event written in the same transaction as the data it describes,
+ * published to Kafka later by OutboxRelay.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_sent_at_id", columnList = "sent_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Kafka topic
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "event_key")
+    private String eventKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // null until the broker has acknowledged the event
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    @ColumnDefault("0")
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Earliest time a failed row is retried (exponential backoff); null = as soon as possible
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    // Dead letter: set when the payload cannot be decoded or max attempts are used up; never relayed again
+    @Column(name = "dead_at")
+    private Instant deadAt;
+}
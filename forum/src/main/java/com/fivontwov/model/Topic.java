@@ -1,18 +1,22 @@
 package com.fivontwov.model;
 
+import com.fivontwov.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "topics")
+@Table(name = "topics", indexes = {
+        @Index(name = "idx_topics_created_at_id", columnList = "created_at DESC, id DESC")
+})
 @Getter
 @Setter
 public class Topic {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -26,4 +30,17 @@ public class Topic {
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
+
+    // Denormalized vote counters, maintained by VoteScoreBuffer (never written through the entity)
+    @ColumnDefault("0")
+    @Column(name = "upvotes", nullable = false, updatable = false)
+    private long upvotes;
+
+    @ColumnDefault("0")
+    @Column(name = "downvotes", nullable = false, updatable = false)
+    private long downvotes;
+
+    @ColumnDefault("0")
+    @Column(name = "score", nullable = false, updatable = false)
+    private long score;
 }
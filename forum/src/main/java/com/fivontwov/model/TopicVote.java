@@ -1,5 +1,6 @@
 package com.fivontwov.model;
 
+import com.fivontwov.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -7,13 +8,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "topic_votes", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "topic_id"}))
+@Table(name = "topic_votes", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "topic_id"}),
+        indexes = @Index(name = "idx_topic_votes_voted_at", columnList = "voted_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TopicVote {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "topic_id", nullable = false)
@@ -28,4 +30,9 @@ public class TopicVote {
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
+
+    // Last time the vote was cast or flipped (set by TopicVoteRepository.upsert); VoteScoreBuffer.reconcile
+    // skips topics voted on recently, whose deltas may still be buffered on some node
+    @Column(name = "voted_at")
+    private Instant votedAt;
 }
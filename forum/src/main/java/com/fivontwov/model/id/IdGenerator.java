@@ -0,0 +1,10 @@
+package com.fivontwov.model.id;
+
+/**
+ * Source of primary keys for entities annotated with {@link SnowflakeId}.
+ * Ids must be unique across all forum instances and increase with time on each instance.
+ */
+public interface IdGenerator {
+
+    long nextId();
+}
@@ -0,0 +1,25 @@
+package com.fivontwov.model.id;
+
+/**
+ * Holder for the {@link IdGenerator} bean, installed by IdGeneratorConfig at startup.
+ */
+public final class IdGenerators {
+
+    private static volatile IdGenerator current;
+
+    private IdGenerators() {
+    }
+
+    public static void install(IdGenerator generator) {
+        current = generator;
+    }
+
+    public static IdGenerator current() {
+        IdGenerator generator = current;
+        if (generator == null) {
+            // Failing is safer than guessing a node id that another instance may already use
+            throw new IllegalStateException("No IdGenerator installed");
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,18 @@
+package com.fivontwov.model.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns the id in the application from the configured {@link IdGenerator} instead of an identity column.
+ * The id is known before the INSERT, so Hibernate can queue inserts and send them as JDBC batches.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
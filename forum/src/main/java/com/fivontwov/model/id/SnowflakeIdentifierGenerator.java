@@ -0,0 +1,16 @@
+package com.fivontwov.model.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. Hibernate instantiates this class itself, so the Spring-managed
+ * {@link IdGenerator} is reached through {@link IdGenerators}.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return IdGenerators.current().nextId();
+    }
+}
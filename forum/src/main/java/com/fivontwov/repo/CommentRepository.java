@@ -1,10 +1,88 @@
 package com.fivontwov.repo;
 
 import com.fivontwov.model.Comment;
+import com.fivontwov.repo.projection.CommentSummaryRow;
+import com.fivontwov.repo.projection.CommentTreeRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByTopicId(Long topicId);
+
+    // List columns only: substring() reads just the leading slice of a TOASTed body instead of the whole value
+    String SUMMARY_COLUMNS = "id AS \"id\", topic_id AS \"topicId\", parent_comment_id AS \"parentCommentId\", " +
+            "user_id AS \"userId\", substring(body FROM 1 FOR :headLength) AS \"bodyHead\", created_at AS \"createdAt\" ";
+
+    // Keyset pagination, oldest first within a topic; served by idx_comments_topic_created_at_id
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + "FROM comments WHERE topic_id = :topicId " +
+            "ORDER BY created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<CommentSummaryRow> findFirstPageByTopicId(@Param("topicId") Long topicId,
+                                                   @Param("headLength") int headLength,
+                                                   @Param("limit") int limit);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + "FROM comments WHERE topic_id = :topicId AND (created_at, id) > (:createdAt, :id) " +
+            "ORDER BY created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<CommentSummaryRow> findPageByTopicIdAfter(@Param("topicId") Long topicId,
+                                                   @Param("createdAt") Instant createdAt,
+                                                   @Param("id") Long id,
+                                                   @Param("headLength") int headLength,
+                                                   @Param("limit") int limit);
+
+    // Catch-up after a reconnect: comments with id above a lower bound (see TopicService.getCommentsSince); served by idx_comments_topic_id_id
+    @Query(value = "SELECT * FROM comments WHERE topic_id = :topicId AND id > :afterId ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Comment> findByTopicIdAfterId(@Param("topicId") Long topicId,
+                                       @Param("afterId") Long afterId,
+                                       @Param("limit") int limit);
+
+    /**
+     * Whole reply tree of a topic in one round trip (recursive CTE).
+     * Descent stops at maxDepth and below the ids listed in collapsedIds (comma separated, may be empty);
+     * childCount is always the real number of direct replies, so cut-off nodes can still show it.
+     * Every level is scoped to the topic. Rows whose parent is not a comment of this topic (written before
+     * addComment checked it) are returned at depth 0 instead of being lost or leaking into another topic.
+     * Rows come back parent-before-child, siblings in creation order.
+     */
+    @Query(value = """
+            WITH RECURSIVE tree AS (
+                SELECT c.id, c.topic_id, c.parent_comment_id, c.user_id, c.body, c.created_at, 0 AS depth
+                FROM comments c
+                WHERE c.topic_id = :topicId
+                  AND (c.parent_comment_id IS NULL
+                       OR NOT EXISTS (SELECT 1 FROM comments p
+                                      WHERE p.id = c.parent_comment_id AND p.topic_id = :topicId))
+                UNION ALL
+                SELECT c.id, c.topic_id, c.parent_comment_id, c.user_id, c.body, c.created_at, t.depth + 1
+                FROM comments c
+                JOIN tree t ON c.parent_comment_id = t.id
+                WHERE c.topic_id = :topicId
+                  AND t.depth < :maxDepth
+                  AND NOT (t.id = ANY (CAST(string_to_array(:collapsedIds, ',') AS BIGINT[])))
+            )
+            SELECT t.id AS "id",
+                   t.topic_id AS "topicId",
+                   t.parent_comment_id AS "parentCommentId",
+                   t.user_id AS "userId",
+                   t.body AS "body",
+                   t.created_at AS "createdAt",
+                   t.depth AS "depth",
+                   (SELECT COUNT(*) FROM comments r
+                    WHERE r.parent_comment_id = t.id AND r.topic_id = :topicId) AS "childCount"
+            FROM tree t
+            ORDER BY t.depth, t.created_at, t.id
+            """, nativeQuery = true)
+    List<CommentTreeRow> findTreeByTopicId(@Param("topicId") Long topicId,
+                                           @Param("maxDepth") int maxDepth,
+                                           @Param("collapsedIds") String collapsedIds);
+
+    // Author of a comment, only if it belongs to the given topic (a reply's parent must)
+    @Query("select c.userId from Comment c where c.id = :id and c.topicId = :topicId")
+    Optional<Long> findUserIdByIdAndTopicId(@Param("id") Long id, @Param("topicId") Long topicId);
 }
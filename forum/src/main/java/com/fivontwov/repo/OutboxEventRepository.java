@@ -0,0 +1,57 @@
+package com.fivontwov.repo;
+
+import com.fivontwov.model.OutboxEvent;
+import com.fivontwov.repo.projection.OutboxBacklog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several forum instances relay concurrently without sending a row twice.
+    // Dead-lettered rows and rows still backing off are skipped, so they cannot block the head of the queue
+    @Query(value = "SELECT * FROM outbox_events " +
+            "WHERE sent_at IS NULL AND dead_at IS NULL " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= now()) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    /**
+     * Count a failed send and schedule the retry: backoff doubles per attempt up to {@code maxBackoffSeconds}.
+     * The attempt that reaches {@code maxAttempts} dead-letters the row instead.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET attempts = attempts + 1, " +
+            "next_attempt_at = now() + LEAST(:maxBackoffSeconds, power(2, attempts)) * INTERVAL '1 second', " +
+            "dead_at = CASE WHEN attempts + 1 >= :maxAttempts THEN now() END " +
+            "WHERE id IN (:ids)",
+            nativeQuery = true)
+    int recordFailure(@Param("ids") Collection<Long> ids,
+                      @Param("maxAttempts") int maxAttempts,
+                      @Param("maxBackoffSeconds") long maxBackoffSeconds);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.deadAt = :deadAt where e.id in :ids")
+    int markDead(@Param("ids") Collection<Long> ids, @Param("deadAt") Instant deadAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+
+    @Query(value = "SELECT COUNT(*) FILTER (WHERE dead_at IS NULL) AS \"pending\", " +
+            "COUNT(*) FILTER (WHERE dead_at IS NOT NULL) AS \"dead\", " +
+            "MIN(created_at) FILTER (WHERE dead_at IS NULL) AS \"oldestCreatedAt\" " +
+            "FROM outbox_events WHERE sent_at IS NULL",
+            nativeQuery = true)
+    OutboxBacklog findBacklog();
+}
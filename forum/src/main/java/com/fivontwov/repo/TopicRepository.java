@@ -1,7 +1,36 @@
 package com.fivontwov.repo;
 
 import com.fivontwov.model.Topic;
+import com.fivontwov.repo.projection.TopicSummaryRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface TopicRepository extends JpaRepository<Topic, Long> {
+
+    // List columns only: substring() reads just the leading slice of a TOASTed body instead of the whole value
+    String SUMMARY_COLUMNS = "id AS \"id\", user_id AS \"userId\", title AS \"title\", " +
+            "substring(body FROM 1 FOR :headLength) AS \"bodyHead\", created_at AS \"createdAt\", " +
+            "upvotes AS \"upvotes\", downvotes AS \"downvotes\", score AS \"score\" ";
+
+    // Keyset pagination, newest first; served by idx_topics_created_at_id
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + "FROM topics ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<TopicSummaryRow> findFirstPage(@Param("headLength") int headLength, @Param("limit") int limit);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + "FROM topics WHERE (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<TopicSummaryRow> findPageBefore(@Param("createdAt") Instant createdAt,
+                                         @Param("id") Long id,
+                                         @Param("headLength") int headLength,
+                                         @Param("limit") int limit);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + "FROM topics WHERE id IN (:ids)", nativeQuery = true)
+    List<TopicSummaryRow> findSummariesByIdIn(@Param("ids") Collection<Long> ids,
+                                              @Param("headLength") int headLength);
 }
@@ -2,10 +2,31 @@ package com.fivontwov.repo;
 
 import com.fivontwov.model.TopicVote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface TopicVoteRepository extends JpaRepository<TopicVote, Long> {
     Optional<TopicVote> findByUserIdAndTopicId(Long userId, Long topicId);
     int countByTopicIdAndValue(Long topicId, int value);
+
+    /**
+     * Cast or flip a vote in one statement; concurrent requests from the same user serialize on the
+     * (user_id, topic_id) unique index instead of failing on it.
+     * Returns the id of the row written: {@code newId} for a new vote, the existing id for a flipped one,
+     * and nothing when the user already had exactly this vote (the row is left untouched).
+     */
+    @Query(value = "INSERT INTO topic_votes (id, topic_id, user_id, value, created_at, voted_at) " +
+            "VALUES (:newId, :topicId, :userId, :value, now(), now()) " +
+            "ON CONFLICT (user_id, topic_id) DO UPDATE SET value = EXCLUDED.value, voted_at = EXCLUDED.voted_at " +
+            "WHERE topic_votes.value <> EXCLUDED.value " +
+            "RETURNING id",
+            nativeQuery = true)
+    @Transactional
+    Optional<Long> upsert(@Param("newId") long newId,
+                          @Param("topicId") Long topicId,
+                          @Param("userId") Long userId,
+                          @Param("value") int value);
 }
@@ -0,0 +1,21 @@
+package com.fivontwov.repo.projection;
+
+import java.time.Instant;
+
+/**
+ * List view of a comment, with the body cut down to its first few characters
+ * (one more than the snippet length, so truncation can be detected).
+ */
+public interface CommentSummaryRow {
+    Long getId();
+
+    Long getTopicId();
+
+    Long getParentCommentId();
+
+    Long getUserId();
+
+    String getBodyHead();
+
+    Instant getCreatedAt();
+}
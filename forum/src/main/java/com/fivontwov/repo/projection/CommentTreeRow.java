@@ -0,0 +1,25 @@
+package com.fivontwov.repo.projection;
+
+import java.time.Instant;
+
+/**
+ * One row of the recursive comment-tree query: the comment itself plus its depth
+ * below the topic and how many direct replies it has in the database.
+ */
+public interface CommentTreeRow {
+    Long getId();
+
+    Long getTopicId();
+
+    Long getParentCommentId();
+
+    Long getUserId();
+
+    String getBody();
+
+    Instant getCreatedAt();
+
+    Integer getDepth();
+
+    Long getChildCount();
+}
@@ -0,0 +1,14 @@
+package com.fivontwov.repo.projection;
+
+import java.time.Instant;
+
+/**
+ * Size and age of the unsent part of the outbox, and how many rows were dead-lettered.
+ */
+public interface OutboxBacklog {
+    Long getPending();
+
+    Long getDead();
+
+    Instant getOldestCreatedAt();
+}
@@ -0,0 +1,25 @@
+package com.fivontwov.repo.projection;
+
+import java.time.Instant;
+
+/**
+ * List view of a topic: every column except the full body, which is replaced by its
+ * first few characters (one more than the snippet length, so truncation can be detected).
+ */
+public interface TopicSummaryRow {
+    Long getId();
+
+    Long getUserId();
+
+    String getTitle();
+
+    String getBodyHead();
+
+    Instant getCreatedAt();
+
+    Long getUpvotes();
+
+    Long getDownvotes();
+
+    Long getScore();
+}
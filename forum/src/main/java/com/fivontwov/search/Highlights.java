@@ -0,0 +1,28 @@
+package com.fivontwov.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * ts_headline trả về văn bản gốc của user, nên không được để nó chèn thẳng thẻ HTML.
+ * SearchRepository đánh dấu từ khóa bằng sentinel thuần văn bản; ở đây escape toàn bộ đoạn trích
+ * rồi mới đổi sentinel thành &lt;mark&gt;, nên thẻ duy nhất trong snippet là &lt;mark&gt; do ta thêm.
+ * (Nội dung có sẵn chuỗi sentinel chỉ sinh thêm &lt;mark&gt;, không thể chèn script.)
+ */
+public final class Highlights {
+
+    // Must match StartSel/StopSel in SearchRepository.search
+    static final String START_SENTINEL = "[[hl]]";
+    static final String STOP_SENTINEL = "[[/hl]]";
+
+    private Highlights() {
+    }
+
+    public static String toHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(START_SENTINEL, "<mark>")
+                .replace(STOP_SENTINEL, "</mark>");
+    }
+}
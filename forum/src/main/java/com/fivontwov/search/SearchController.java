@@ -0,0 +1,26 @@
+package com.fivontwov.search;
+
+import com.fivontwov.dto.CursorPage;
+import com.fivontwov.search.dto.SearchResultDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<SearchResultDTO>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(query, cursor, limit));
+    }
+}
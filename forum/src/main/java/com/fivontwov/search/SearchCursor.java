@@ -0,0 +1,30 @@
+package com.fivontwov.search;
+
+import com.fivontwov.service.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a ranked result list: (rank, kind, id), serialized as an opaque token.
+ */
+public record SearchCursor(double rank, String kind, long id) {
+
+    // Sorts after every real hit, i.e. "start from the top"
+    public static final SearchCursor FIRST = new SearchCursor(Double.POSITIVE_INFINITY, "", Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = rank + "|" + kind + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new SearchCursor(Double.parseDouble(parts[0]), parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.fivontwov.search;
+
+import java.time.Instant;
+
+/**
+ * One ranked full-text hit, either a topic or a comment.
+ */
+public interface SearchHitRow {
+    String getKind();
+
+    Long getId();
+
+    Long getTopicId();
+
+    String getTopicTitle();
+
+    Long getUserId();
+
+    Instant getCreatedAt();
+
+    Double getRank();
+
+    String getSnippet();
+}
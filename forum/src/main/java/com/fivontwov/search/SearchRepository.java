@@ -0,0 +1,65 @@
+package com.fivontwov.search;
+
+import com.fivontwov.model.Topic;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SearchRepository extends Repository<Topic, Long> {
+
+    /**
+     * Ranked search over topics and comments in one round trip.
+     * Matching uses the GIN indexes on search_vector; ts_headline (the expensive part) only runs
+     * on the rows of the requested page. Keyset position is (rank, kind, id), descending;
+     * pass rank = +Infinity for the first page.
+     * The snippet is raw user text with matches wrapped in plain-text sentinels; {@link Highlights#toHtml}
+     * escapes it before the sentinels become &lt;mark&gt;.
+     */
+    @Query(value = """
+            WITH q AS (
+                SELECT websearch_to_tsquery('simple', :query) AS query
+            ),
+            hits AS (
+                SELECT 'TOPIC' AS kind, t.id, CAST(ts_rank_cd(t.search_vector, q.query) AS float8) AS rank
+                FROM topics t, q
+                WHERE t.search_vector @@ q.query
+                UNION ALL
+                SELECT 'COMMENT' AS kind, c.id, CAST(ts_rank_cd(c.search_vector, q.query) AS float8) AS rank
+                FROM comments c, q
+                WHERE c.search_vector @@ q.query
+            ),
+            page AS (
+                SELECT kind, id, rank
+                FROM hits
+                WHERE (rank, kind, id) < (CAST(:rank AS float8), :kind, :id)
+                ORDER BY rank DESC, kind DESC, id DESC
+                LIMIT :limit
+            )
+            SELECT p.kind AS "kind",
+                   p.id AS "id",
+                   COALESCE(t.id, c.topic_id) AS "topicId",
+                   COALESCE(t.title, ct.title) AS "topicTitle",
+                   COALESCE(t.user_id, c.user_id) AS "userId",
+                   COALESCE(t.created_at, c.created_at) AS "createdAt",
+                   p.rank AS "rank",
+                   ts_headline('simple',
+                               CASE WHEN p.kind = 'TOPIC'
+                                    THEN coalesce(t.title, '') || ' ' || coalesce(t.body, '')
+                                    ELSE c.body END,
+                               q.query,
+                               'StartSel="[[hl]]", StopSel="[[/hl]]", MaxFragments=2, MaxWords=25, MinWords=8') AS "snippet"
+            FROM page p
+            CROSS JOIN q
+            LEFT JOIN topics t ON p.kind = 'TOPIC' AND t.id = p.id
+            LEFT JOIN comments c ON p.kind = 'COMMENT' AND c.id = p.id
+            LEFT JOIN topics ct ON ct.id = c.topic_id
+            ORDER BY p.rank DESC, p.kind DESC, p.id DESC
+            """, nativeQuery = true)
+    List<SearchHitRow> search(@Param("query") String query,
+                              @Param("rank") double rank,
+                              @Param("kind") String kind,
+                              @Param("id") long id,
+                              @Param("limit") int limit);
+}
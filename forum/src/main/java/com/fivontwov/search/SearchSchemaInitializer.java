@@ -0,0 +1,77 @@
+package com.fivontwov.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tạo cột tsvector + GIN index cho full-text search, chỉ khi chúng còn thiếu.
+ *
+ * search_vector là generated column nên PostgreSQL tự cập nhật trong cùng câu INSERT/UPDATE,
+ * không cần trigger hay code ghi riêng. Hibernate (ddl-auto=update) không biết về cột này,
+ * nên DDL được chạy ở đây sau khi bảng đã tồn tại; nội dung giống schema.sql.
+ * Dùng cấu hình 'simple' vì nội dung chủ yếu là tiếng Việt (không có stemmer).
+ *
+ * Thêm cột GENERATED ... STORED viết lại cả bảng dưới ACCESS EXCLUSIVE, nên catalog được kiểm tra
+ * trước và ALTER chỉ chạy ở lần đầu (ALTER ... IF NOT EXISTS vẫn lấy khóa đó mỗi lần khởi động).
+ * Index được build CONCURRENTLY để không chặn ghi. Với bảng lớn trên production, áp dụng schema.sql
+ * trong cửa sổ bảo trì và tắt runner này bằng forum.search.init-schema=false.
+ */
+@Component
+@ConditionalOnProperty(name = "forum.search.init-schema", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SearchSchemaInitializer implements ApplicationRunner {
+
+    private static final String TOPICS_COLUMN =
+            "ALTER TABLE topics ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+                    "setweight(to_tsvector('simple', coalesce(body, '')), 'B')) STORED";
+    private static final String COMMENTS_COLUMN =
+            "ALTER TABLE comments ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (to_tsvector('simple', coalesce(body, ''))) STORED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        addColumnIfMissing("topics", TOPICS_COLUMN);
+        addColumnIfMissing("comments", COMMENTS_COLUMN);
+        createIndexIfMissing("idx_topics_search_vector", "topics");
+        createIndexIfMissing("idx_comments_search_vector", "comments");
+        log.info("Full-text search columns and indexes are in place");
+    }
+
+    private void addColumnIfMissing(String table, String ddl) {
+        Integer present = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'search_vector'",
+                Integer.class, table);
+        if (present != null && present > 0) {
+            return;
+        }
+        log.warn("Adding {}.search_vector: rewrites the table under an exclusive lock", table);
+        jdbcTemplate.execute(ddl);
+    }
+
+    private void createIndexIfMissing(String index, String table) {
+        Boolean valid = jdbcTemplate.query(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)",
+                rs -> rs.next() ? rs.getBoolean(1) : null,
+                index);
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (valid != null) {
+            // Left behind by an interrupted CONCURRENTLY build: unusable, and IF NOT EXISTS would keep it
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+        }
+        // CONCURRENTLY cannot run inside a transaction; JdbcTemplate uses an auto-commit connection here
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index +
+                " ON " + table + " USING GIN (search_vector)");
+    }
+}
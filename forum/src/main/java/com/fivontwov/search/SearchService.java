@@ -0,0 +1,66 @@
+package com.fivontwov.search;
+
+import com.fivontwov.dto.CursorPage;
+import com.fivontwov.dto.UserDTO;
+import com.fivontwov.grpc.UserGrpcClient;
+import com.fivontwov.search.dto.SearchResultDTO;
+import com.fivontwov.service.PageCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService {
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchRepository searchRepository;
+    private final UserGrpcClient userClient;
+
+    @Transactional(readOnly = true)
+    public CursorPage<SearchResultDTO> search(String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        String q = query.strip();
+        if (q.length() > MAX_QUERY_LENGTH) {
+            q = q.substring(0, MAX_QUERY_LENGTH);
+        }
+
+        int pageSize = PageCursor.clampLimit(limit);
+        SearchCursor position = cursor == null ? SearchCursor.FIRST : SearchCursor.decode(cursor);
+        List<SearchHitRow> rows = searchRepository.search(q, position.rank(), position.kind(), position.id(),
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        // One batched lookup for all authors on the page
+        Set<Long> userIds = rows.stream().map(SearchHitRow::getUserId).collect(Collectors.toSet());
+        Map<Long, UserDTO> creators = new HashMap<>();
+        userClient.getUsersByIds(userIds)
+                .forEach((id, user) -> creators.put(id, UserDTO.fromGrpcResponse(user)));
+
+        List<SearchResultDTO> items = rows.stream()
+                .map(row -> SearchResultDTO.fromRow(row, creators.get(row.getUserId())))
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            SearchHitRow last = rows.get(rows.size() - 1);
+            nextCursor = new SearchCursor(last.getRank(), last.getKind(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+}
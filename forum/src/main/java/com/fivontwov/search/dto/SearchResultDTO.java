@@ -0,0 +1,49 @@
+package com.fivontwov.search.dto;
+
+import com.fivontwov.dto.UserDTO;
+import com.fivontwov.search.Highlights;
+import com.fivontwov.search.SearchHitRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Một kết quả tìm kiếm: topic hoặc comment.
+ * snippet là đoạn trích đã HTML-escape, từ khóa được bọc trong &lt;mark&gt;...&lt;/mark&gt;.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+
+    public enum Kind {
+        TOPIC,
+        COMMENT
+    }
+
+    private Kind kind;
+    private Long id;
+    private Long topicId;
+    private String topicTitle;
+    private Long userId;
+    private Instant createdAt;
+    private double rank;
+    private String snippet;
+    private UserDTO creator;
+
+    public static SearchResultDTO fromRow(SearchHitRow row, UserDTO creator) {
+        SearchResultDTO dto = new SearchResultDTO();
+        dto.setKind(Kind.valueOf(row.getKind()));
+        dto.setId(row.getId());
+        dto.setTopicId(row.getTopicId());
+        dto.setTopicTitle(row.getTopicTitle());
+        dto.setUserId(row.getUserId());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setRank(row.getRank());
+        dto.setSnippet(Highlights.toHtml(row.getSnippet()));
+        dto.setCreator(creator);
+        return dto;
+    }
+}
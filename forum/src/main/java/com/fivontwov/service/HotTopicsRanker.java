@@ -0,0 +1,323 @@
+package com.fivontwov.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bảng xếp hạng "hot topics" in-memory, cập nhật tăng dần.
+ *
+ * hot = (voteScore + COMMENT_WEIGHT * commentHeat) / (ageHours + 2) ^ GRAVITY   (kiểu Hacker News)
+ * commentHeat là số comment có suy giảm theo half-life, đại diện cho tốc độ bình luận gần đây.
+ *
+ * Một pool giới hạn các topic ứng viên được giữ trong TreeSet sắp theo hot score; vote/comment chỉ
+ * cập nhật đúng một entry (O(log pool)) sau khi transaction commit, và đánh dấu snapshot top-K là cũ.
+ * Snapshot bất biến chỉ được dựng lại khi có người đọc, nên GET /topics/hot đọc O(K) từ memory và
+ * mỗi lượt vote không phải copy top-K. Job định kỳ tính lại decay theo thời gian hiện tại và
+ * đồng bộ voteScore từ topics.score (bù cho vote đến từ node khác).
+ */
+@Component
+@Slf4j
+public class HotTopicsRanker {
+
+    private static final double GRAVITY = 1.8;
+    private static final double COMMENT_WEIGHT = 2.0;
+    private static final double COMMENT_HALF_LIFE_MS = Duration.ofHours(6).toMillis();
+    private static final Duration CANDIDATE_WINDOW = Duration.ofDays(7);
+
+    private static final Comparator<TopicHeat> BY_HOT_DESC = Comparator
+            .comparingDouble((TopicHeat h) -> h.hot).reversed()
+            .thenComparing(h -> h.topicId, Comparator.reverseOrder());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final int topK;
+    private final int poolSize;
+
+    // Guarded by lock. A ReentrantLock rather than a monitor: onVote/onComment run on request threads,
+    // and waiting on a contended monitor pins a virtual thread to its carrier.
+    // pool is written under the lock only, but concurrent so membership can be checked without it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, TopicHeat> pool = new ConcurrentHashMap<>();
+    private final TreeSet<TopicHeat> ranking = new TreeSet<>(BY_HOT_DESC);
+
+    private volatile List<Long> topSnapshot = List.of();
+    // Set by every ranking change, cleared when top() rebuilds topSnapshot
+    private volatile boolean snapshotStale;
+
+    public HotTopicsRanker(JdbcTemplate jdbcTemplate,
+                           @Value("${forum.hot.k:100}") int topK,
+                           @Value("${forum.hot.pool-size:1000}") int poolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.topK = topK;
+        this.poolSize = Math.max(poolSize, topK);
+    }
+
+    /**
+     * Current top topic ids, hottest first. Rebuilds the snapshot only if the ranking changed since the last read.
+     */
+    public List<Long> top(int limit) {
+        if (snapshotStale) {
+            lock.lock();
+            try {
+                if (snapshotStale) {
+                    snapshotStale = false;
+                    topSnapshot = snapshotTop();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        List<Long> snapshot = topSnapshot;
+        return snapshot.subList(0, Math.min(Math.max(limit, 0), snapshot.size()));
+    }
+
+    public void onTopicCreated(Long topicId, Instant createdAt) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            TopicHeat heat = new TopicHeat(topicId, createdAt.toEpochMilli(), 0, 0, now);
+            heat.rescore(now);
+            pool.put(topicId, heat);
+            ranking.add(heat);
+            trimAndPublish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applied once the surrounding transaction commits, so rolled-back votes never move the ranking.
+     */
+    public void onVote(Long topicId, long scoreDelta) {
+        if (scoreDelta == 0) {
+            return;
+        }
+        afterCommit(() -> update(topicId, (heat, now) -> heat.voteScore += scoreDelta));
+    }
+
+    /**
+     * Applied once the surrounding transaction commits, like {@link #onVote}.
+     */
+    public void onComment(Long topicId) {
+        afterCommit(() -> update(topicId, (heat, now) -> {
+            heat.decayComments(now);
+            heat.commentHeat += 1;
+        }));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void update(Long topicId, HeatMutation mutation) {
+        long now = System.currentTimeMillis();
+        TopicHeat heat = pool.get(topicId);
+        if (heat == null) {
+            // Cold topic: load its current state once, outside the lock
+            heat = loadHeat(topicId, now);
+            if (heat == null) {
+                return;
+            }
+        }
+
+        lock.lock();
+        try {
+            TopicHeat current = pool.putIfAbsent(topicId, heat);
+            if (current != null) {
+                heat = current;
+                ranking.remove(heat);
+            }
+            mutation.apply(heat, now);
+            heat.rescore(now);
+            ranking.add(heat);
+            trimAndPublish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long now = System.currentTimeMillis();
+        Timestamp since = Timestamp.from(Instant.ofEpochMilli(now).minus(CANDIDATE_WINDOW));
+        Map<Long, TopicHeat> loaded = new HashMap<>();
+
+        jdbcTemplate.query(
+                "SELECT id, created_at, score FROM topics WHERE created_at > ? ORDER BY score DESC, id DESC LIMIT ?",
+                rs -> {
+                    long id = rs.getLong("id");
+                    loaded.put(id, new TopicHeat(id, rs.getTimestamp("created_at").getTime(),
+                            rs.getLong("score"), 0, now));
+                },
+                since, poolSize);
+
+        // Seed comment heat with the last day of activity (treated as fresh, decays from here on)
+        Timestamp commentsSince = Timestamp.from(Instant.ofEpochMilli(now).minus(Duration.ofDays(1)));
+        jdbcTemplate.query(
+                "SELECT topic_id, COUNT(*) AS cnt FROM comments WHERE created_at > ? GROUP BY topic_id",
+                rs -> {
+                    TopicHeat heat = loaded.get(rs.getLong("topic_id"));
+                    if (heat != null) {
+                        heat.commentHeat = rs.getLong("cnt");
+                    }
+                },
+                commentsSince);
+
+        lock.lock();
+        try {
+            pool.clear();
+            ranking.clear();
+            for (TopicHeat heat : loaded.values()) {
+                heat.rescore(now);
+                pool.put(heat.topicId, heat);
+                ranking.add(heat);
+            }
+            trimAndPublish();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Hot topics ranking bootstrapped with {} candidates", loaded.size());
+    }
+
+    /**
+     * Re-apply time decay to every candidate and resync vote scores from topics.score.
+     */
+    @Scheduled(initialDelayString = "${forum.hot.redecay-interval-ms:60000}",
+            fixedDelayString = "${forum.hot.redecay-interval-ms:60000}")
+    public void redecay() {
+        Set<Long> ids;
+        lock.lock();
+        try {
+            ids = new HashSet<>(pool.keySet());
+        } finally {
+            lock.unlock();
+        }
+        Map<Long, Long> scores = new HashMap<>();
+        if (!ids.isEmpty()) {
+            namedJdbcTemplate.query(
+                    "SELECT id, score FROM topics WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids),
+                    rs -> {
+                        scores.put(rs.getLong("id"), rs.getLong("score"));
+                    });
+        }
+
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            ranking.clear();
+            // Candidates that vanished from topics were deleted in the meantime
+            pool.keySet().removeIf(id -> ids.contains(id) && !scores.containsKey(id));
+            for (TopicHeat heat : pool.values()) {
+                Long dbScore = scores.get(heat.topicId);
+                if (dbScore != null) {
+                    heat.voteScore = dbScore;
+                }
+                heat.decayComments(now);
+                heat.rescore(now);
+                ranking.add(heat);
+            }
+            trimAndPublish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TopicHeat loadHeat(Long topicId, long now) {
+        List<TopicHeat> rows = jdbcTemplate.query(
+                "SELECT created_at, score FROM topics WHERE id = ?",
+                (rs, i) -> new TopicHeat(topicId, rs.getTimestamp("created_at").getTime(),
+                        rs.getLong("score"), 0, now),
+                topicId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Caller holds the lock
+    private void trimAndPublish() {
+        while (ranking.size() > poolSize) {
+            TopicHeat coldest = ranking.pollLast();
+            pool.remove(coldest.topicId);
+        }
+        snapshotStale = true;
+    }
+
+    // Caller holds the lock
+    private List<Long> snapshotTop() {
+        List<Long> top = new ArrayList<>(Math.min(topK, ranking.size()));
+        for (TopicHeat heat : ranking) {
+            if (top.size() == topK) {
+                break;
+            }
+            top.add(heat.topicId);
+        }
+        return List.copyOf(top);
+    }
+
+    @FunctionalInterface
+    private interface HeatMutation {
+        void apply(TopicHeat heat, long now);
+    }
+
+    private static final class TopicHeat {
+        final long topicId;
+        final long createdAtMs;
+        long voteScore;
+        double commentHeat;
+        long heatUpdatedAtMs;
+        double hot;
+
+        TopicHeat(long topicId, long createdAtMs, long voteScore, double commentHeat, long now) {
+            this.topicId = topicId;
+            this.createdAtMs = createdAtMs;
+            this.voteScore = voteScore;
+            this.commentHeat = commentHeat;
+            this.heatUpdatedAtMs = now;
+        }
+
+        void decayComments(long now) {
+            long elapsed = now - heatUpdatedAtMs;
+            if (elapsed > 0) {
+                commentHeat *= Math.pow(0.5, elapsed / COMMENT_HALF_LIFE_MS);
+                heatUpdatedAtMs = now;
+            }
+        }
+
+        void rescore(long now) {
+            double ageHours = Math.max(0, now - createdAtMs) / 3_600_000.0;
+            hot = (voteScore + COMMENT_WEIGHT * commentHeat) / Math.pow(ageHours + 2, GRAVITY);
+        }
+    }
+}
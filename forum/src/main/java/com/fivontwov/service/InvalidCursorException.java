@@ -0,0 +1,15 @@
+package com.fivontwov.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A paging cursor sent by the client could not be decoded (malformed or tampered with): 400, not 500.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+}
@@ -3,32 +3,62 @@ package com.fivontwov.service;
 import com.fivontwov.dto.*;
 import com.fivontwov.event.CommentCreatedEvent;
 import com.fivontwov.grpc.UserGrpcClient;
-import com.fivontwov.kafka.KafkaProducerService;
+import com.fivontwov.kafka.CommentEventOutbox;
 import com.fivontwov.model.Comment;
 import com.fivontwov.model.Topic;
-import com.fivontwov.model.TopicVote;
+import com.fivontwov.model.id.IdGenerator;
+import com.fivontwov.model.id.SnowflakeIdGenerator;
 import com.fivontwov.repo.CommentRepository;
 import com.fivontwov.repo.TopicRepository;
 import com.fivontwov.repo.TopicVoteRepository;
+import com.fivontwov.repo.projection.CommentSummaryRow;
+import com.fivontwov.repo.projection.CommentTreeRow;
+import com.fivontwov.repo.projection.TopicSummaryRow;
+import com.fivontwov.websocket.LiveCommentPublisher;
+import com.fivontwov.websocket.PresenceRegistry;
+import com.fivontwov.websocket.dto.CommentDelta;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.fivontwov.user.proto.UserResponse;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TopicService {
 
     private final TopicRepository topicRepository;
     private final CommentRepository commentRepository;
     private final TopicVoteRepository voteRepository;
     private final UserGrpcClient userClient;
-    private final KafkaProducerService kafkaProducerService;
+    private final CommentEventOutbox commentEventOutbox;
+    private final VoteScoreBuffer voteScoreBuffer;
+    private final HotTopicsRanker hotTopicsRanker;
+    private final LiveCommentPublisher liveCommentPublisher;
+    private final PresenceRegistry presenceRegistry;
+    private final IdGenerator idGenerator;
+
+    private static final int DEFAULT_TREE_DEPTH = 10;
+    private static final int MAX_TREE_DEPTH = 50;
+    // Characters of body kept in list responses (TopicSummary / CommentSummary)
+    private static final int SNIPPET_LENGTH = 200;
+    // How far below the client's last seen id the live-feed catch-up re-reads: covers commit latency and clock skew
+    private static final Duration CATCH_UP_LOOKBACK = Duration.ofSeconds(5);
 
     public Topic createTopic(Long userId, String title, String body) {
         Optional<UserResponse> userOpt = userClient.getUserById(userId);
@@ -40,20 +70,36 @@ public class TopicService {
         t.setUserId(userId);
         t.setTitle(title);
         t.setBody(body);
-        return topicRepository.save(t);
+        Topic saved = topicRepository.save(t);
+        hotTopicsRanker.onTopicCreated(saved.getId(), saved.getCreatedAt());
+        return saved;
     }
 
+    @Transactional
     public Comment addComment(Long topicId, AddCommentRequest req) {
         Optional<Topic> topicOpt = topicRepository.findById(topicId);
         if (topicOpt.isEmpty()) throw new IllegalArgumentException("Topic not found");
         Topic topic = topicOpt.get();
 
-        // Verify commenter exists via gRPC
-        Optional<UserResponse> commenterOpt = userClient.getUserById(req.getUserId());
-        if (commenterOpt.isEmpty()) {
-            throw new IllegalArgumentException("User not found with id: " + req.getUserId());
+        Optional<Long> parentCommentAuthorId = Optional.empty();
+        if (req.getParentCommentId() != null) {
+            parentCommentAuthorId = commentRepository.findUserIdByIdAndTopicId(req.getParentCommentId(), topicId);
+            if (parentCommentAuthorId.isEmpty()) {
+                // Missing, or a comment of another topic: it would attach this reply to the wrong tree
+                throw new IllegalArgumentException("Parent comment not found in topic: " + req.getParentCommentId());
+            }
         }
-        UserResponse commenter = commenterOpt.get();
+
+        // Fire commenter / topic creator / parent author lookups at once (deduped by user id),
+        // they run concurrently with each other and with the insert below
+        Map<Long, CompletableFuture<Optional<UserResponse>>> lookups = new HashMap<>();
+        CompletableFuture<Optional<UserResponse>> commenterFuture =
+                lookups.computeIfAbsent(req.getUserId(), userClient::getUserByIdAsync);
+        CompletableFuture<Optional<UserResponse>> topicCreatorFuture =
+                lookups.computeIfAbsent(topic.getUserId(), userClient::getUserByIdAsync);
+        CompletableFuture<Optional<UserResponse>> parentCreatorFuture = parentCommentAuthorId
+                .map(id -> lookups.computeIfAbsent(id, userClient::getUserByIdAsync))
+                .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()));
 
         // Save comment
         Comment c = new Comment();
@@ -63,21 +109,20 @@ public class TopicService {
         c.setBody(req.getBody());
         Comment savedComment = commentRepository.save(c);
 
+        // Verify commenter exists via gRPC (throwing here rolls the insert back)
+        Optional<UserResponse> commenterOpt = commenterFuture.join();
+        if (commenterOpt.isEmpty()) {
+            throw new IllegalArgumentException("User not found with id: " + req.getUserId());
+        }
+        UserResponse commenter = commenterOpt.get();
+
         // Get topic creator info
-        Optional<UserResponse> topicCreatorOpt = userClient.getUserById(topic.getUserId());
-        
+        Optional<UserResponse> topicCreatorOpt = topicCreatorFuture.join();
+
         // Get parent comment creator info (if this is a reply)
-        UserResponse parentCommentCreator = null;
-        if (req.getParentCommentId() != null) {
-            Optional<Comment> parentCommentOpt = commentRepository.findById(req.getParentCommentId());
-            if (parentCommentOpt.isPresent()) {
-                Comment parentComment = parentCommentOpt.get();
-                Optional<UserResponse> parentCreatorOpt = userClient.getUserById(parentComment.getUserId());
-                parentCommentCreator = parentCreatorOpt.orElse(null);
-            }
-        }
+        UserResponse parentCommentCreator = parentCreatorFuture.join().orElse(null);
 
-        // Create and send Kafka event
+        // Create Kafka event
         CommentCreatedEvent event = new CommentCreatedEvent();
         event.setCommentId(savedComment.getId());
         event.setTopicId(topicId);
@@ -101,8 +146,13 @@ public class TopicService {
             event.setParentCommentCreatorEmail(parentCommentCreator.getEmail());
         }
 
-        // Send event to Kafka
-        kafkaProducerService.sendCommentCreatedEvent(event);
+        // Enqueue in the outbox (same transaction as the comment); OutboxRelay publishes it to Kafka
+        commentEventOutbox.enqueue(event);
+
+        hotTopicsRanker.onComment(topicId);
+
+        // Push to viewers of the topic once committed; author info is already at hand
+        liveCommentPublisher.publishAfterCommit(CommentDelta.of(savedComment, UserDTO.fromGrpcResponse(commenter)));
 
         return savedComment;
     }
@@ -116,28 +166,26 @@ public class TopicService {
         }
 
         if (req.getValue() == null || (req.getValue() != 1 && req.getValue() != -1)) throw new IllegalArgumentException("Invalid vote value");
-        Optional<Topic> t = topicRepository.findById(topicId);
-        if (t.isEmpty()) throw new IllegalArgumentException("Topic not found");
-
-        Optional<TopicVote> existing = voteRepository.findByUserIdAndTopicId(req.getUserId(), topicId);
-        if (existing.isPresent()) {
-            TopicVote ev = existing.get();
-            if (ev.getValue().equals(req.getValue())) {
-                // same vote, no-op (or we could remove)
-                return;
-            }
-            ev.setValue(req.getValue());
-            voteRepository.save(ev);
+        if (!topicRepository.existsById(topicId)) throw new IllegalArgumentException("Topic not found");
+
+        long newId = idGenerator.nextId();
+        Optional<Long> written = voteRepository.upsert(newId, topicId, req.getUserId(), req.getValue());
+        if (written.isEmpty()) {
+            // same vote, no-op
+            return;
+        }
+        if (written.get() == newId) {
+            voteScoreBuffer.record(topicId, req.getValue() == 1 ? 1 : 0, req.getValue() == -1 ? 1 : 0);
+            hotTopicsRanker.onVote(topicId, req.getValue());
         } else {
-            TopicVote v = new TopicVote();
-            v.setTopicId(topicId);
-            v.setUserId(req.getUserId());
-            v.setValue(req.getValue());
-            voteRepository.save(v);
+            // flipped vote: one side loses a vote, the other gains one
+            voteScoreBuffer.record(topicId, req.getValue(), -req.getValue());
+            hotTopicsRanker.onVote(topicId, 2L * req.getValue());
         }
     }
 
     // Get topic with user information
+    @Transactional(readOnly = true)
     public Optional<TopicWithUserDTO> getTopicWithUser(Long topicId) {
         Optional<Topic> topicOpt = topicRepository.findById(topicId);
         if (topicOpt.isEmpty()) {
@@ -153,26 +201,59 @@ public class TopicService {
             System.err.println("Failed to fetch user " + topic.getUserId() + ": " + e.getMessage());
         }
 
-        return Optional.of(TopicWithUserDTO.fromTopic(topic, creator));
+        return Optional.of(TopicWithUserDTO.fromTopic(topic, creator, presenceRegistry.viewers(topic.getId())));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TopicSummary> getAllTopicsWithUser(String cursor, Integer limit) {
+        int pageSize = PageCursor.clampLimit(limit);
+        // Fetch one extra row to know whether another page exists
+        List<TopicSummaryRow> topics = cursor == null
+                ? topicRepository.findFirstPage(SNIPPET_LENGTH + 1, pageSize + 1)
+                : findTopicsBefore(PageCursor.decode(cursor), pageSize + 1);
+
+        boolean hasMore = topics.size() > pageSize;
+        if (hasMore) {
+            topics = topics.subList(0, pageSize);
+        }
+
+        Map<Long, UserDTO> creators = resolveUsers(topics.stream().map(TopicSummaryRow::getUserId));
+        List<TopicSummary> items = topics.stream()
+                .map(topic -> TopicSummary.fromRow(topic, SNIPPET_LENGTH, creators.get(topic.getUserId()),
+                        presenceRegistry.viewers(topic.getId())))
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            TopicSummaryRow last = topics.get(topics.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private List<TopicSummaryRow> findTopicsBefore(PageCursor cursor, int limit) {
+        return topicRepository.findPageBefore(cursor.createdAt(), cursor.id(), SNIPPET_LENGTH + 1, limit);
     }
 
-    public List<TopicWithUserDTO> getAllTopicsWithUser() {
-        List<Topic> topics = topicRepository.findAll();
-        return topics.stream()
-                .map(topic -> {
-                    UserDTO creator = null;
-                    try {
-                        Optional<UserResponse> userOpt = userClient.getUserById(topic.getUserId());
-                        creator = userOpt.map(UserDTO::fromGrpcResponse).orElse(null);
-                    } catch (Exception e) {
-                        // Log error but continue - return topic without user info
-                        System.err.println("Failed to fetch user " + topic.getUserId() + ": " + e.getMessage());
-                    }
-                    return TopicWithUserDTO.fromTopic(topic, creator);
-                })
+    // Front page: ids come ranked from memory, only the K rows themselves are loaded
+    @Transactional(readOnly = true)
+    public List<TopicSummary> getHotTopics(Integer limit) {
+        List<Long> ids = hotTopicsRanker.top(PageCursor.clampLimit(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TopicSummaryRow> topics = topicRepository.findSummariesByIdIn(ids, SNIPPET_LENGTH + 1).stream()
+                .collect(Collectors.toMap(TopicSummaryRow::getId, topic -> topic));
+        Map<Long, UserDTO> creators = resolveUsers(topics.values().stream().map(TopicSummaryRow::getUserId));
+        return ids.stream()
+                .map(topics::get)
+                .filter(Objects::nonNull)
+                .map(topic -> TopicSummary.fromRow(topic, SNIPPET_LENGTH, creators.get(topic.getUserId()),
+                        presenceRegistry.viewers(topic.getId())))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Optional<CommentWithUserDTO> getCommentWithUser(Long commentId) {
         Optional<Comment> commentOpt = commentRepository.findById(commentId);
         if (commentOpt.isEmpty()) {
@@ -191,19 +272,125 @@ public class TopicService {
         return Optional.of(CommentWithUserDTO.fromComment(comment, creator));
     }
 
-    public List<CommentWithUserDTO> getCommentsWithUser(Long topicId) {
-        List<Comment> comments = commentRepository.findByTopicId(topicId);
-        return comments.stream()
-                .map(comment -> {
-                    UserDTO creator = null;
-                    try {
-                        Optional<UserResponse> userOpt = userClient.getUserById(comment.getUserId());
-                        creator = userOpt.map(UserDTO::fromGrpcResponse).orElse(null);
-                    } catch (Exception e) {
-                        System.err.println("Failed to fetch user " + comment.getUserId() + ": " + e.getMessage());
-                    }
-                    return CommentWithUserDTO.fromComment(comment, creator);
-                })
+    @Transactional(readOnly = true)
+    public CursorPage<CommentSummary> getCommentsWithUser(Long topicId, String cursor, Integer limit) {
+        int pageSize = PageCursor.clampLimit(limit);
+        List<CommentSummaryRow> comments = cursor == null
+                ? commentRepository.findFirstPageByTopicId(topicId, SNIPPET_LENGTH + 1, pageSize + 1)
+                : findCommentsAfter(topicId, PageCursor.decode(cursor), pageSize + 1);
+
+        boolean hasMore = comments.size() > pageSize;
+        if (hasMore) {
+            comments = comments.subList(0, pageSize);
+        }
+
+        Map<Long, UserDTO> creators = resolveUsers(comments.stream().map(CommentSummaryRow::getUserId));
+        List<CommentSummary> items = comments.stream()
+                .map(comment -> CommentSummary.fromRow(comment, SNIPPET_LENGTH, creators.get(comment.getUserId())))
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            CommentSummaryRow last = comments.get(comments.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Comments created after {@code afterId}, in id order, for clients reconnecting to the live feed.
+     *
+     * Ids are allocated before the insert commits, so a comment with a smaller id than the last one a client
+     * saw may only have become visible afterwards. The first page therefore starts CATCH_UP_LOOKBACK (in id
+     * time) below afterId and may repeat comments the client already has; clients dedupe by id.
+     * nextCursor continues strictly after the last returned id, without the lookback, so paging terminates.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDelta> getCommentsSince(Long topicId, Long afterId, String cursor, Integer limit) {
+        int pageSize = PageCursor.clampLimit(limit);
+        long lowerBound;
+        if (cursor != null) {
+            lowerBound = parseSinceCursor(cursor);
+        } else {
+            lowerBound = afterId == null ? 0L : SnowflakeIdGenerator.rewind(afterId, CATCH_UP_LOOKBACK);
+        }
+        List<Comment> comments = commentRepository.findByTopicIdAfterId(topicId, lowerBound, pageSize + 1);
+
+        boolean hasMore = comments.size() > pageSize;
+        if (hasMore) {
+            comments = comments.subList(0, pageSize);
+        }
+
+        Map<Long, UserDTO> authors = resolveUsers(comments.stream().map(Comment::getUserId));
+        List<CommentDelta> items = comments.stream()
+                .map(comment -> CommentDelta.of(comment, authors.get(comment.getUserId())))
+                .collect(Collectors.toList());
+
+        String nextCursor = hasMore ? String.valueOf(comments.get(comments.size() - 1).getId()) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private static long parseSinceCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private List<CommentSummaryRow> findCommentsAfter(Long topicId, PageCursor cursor, int limit) {
+        return commentRepository.findPageByTopicIdAfter(topicId, cursor.createdAt(), cursor.id(), SNIPPET_LENGTH + 1, limit);
+    }
+
+    /**
+     * Build the threaded reply tree of a topic from one recursive query plus one batched user lookup.
+     * Rows arrive parent-before-child, so the tree is linked in a single pass.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentTreeNodeDTO> getCommentTree(Long topicId, Integer maxDepth, Collection<Long> collapsed) {
+        int depthLimit = maxDepth == null
+                ? DEFAULT_TREE_DEPTH
+                : Math.max(0, Math.min(maxDepth, MAX_TREE_DEPTH));
+        String collapsedIds = collapsed == null ? "" : collapsed.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        List<CommentTreeRow> rows = commentRepository.findTreeByTopicId(topicId, depthLimit, collapsedIds);
+        Map<Long, UserDTO> creators = resolveUsers(rows.stream().map(CommentTreeRow::getUserId));
+
+        Map<Long, CommentTreeNodeDTO> nodes = new HashMap<>();
+        List<CommentTreeNodeDTO> roots = new ArrayList<>();
+        for (CommentTreeRow row : rows) {
+            CommentTreeNodeDTO node = CommentTreeNodeDTO.fromRow(row, creators.get(row.getUserId()));
+            nodes.put(node.getId(), node);
+            CommentTreeNodeDTO parent = node.getParentCommentId() == null
+                    ? null
+                    : nodes.get(node.getParentCommentId());
+            if (parent == null) {
+                // Top-level comment, or a reply whose parent is not in this topic (older rows, see
+                // CommentRepository.findTreeByTopicId): the query returns it at depth 0, show it at the root
+                roots.add(node);
+            } else {
+                parent.getReplies().add(node);
+            }
+        }
+        for (CommentTreeNodeDTO node : nodes.values()) {
+            node.setCollapsed(node.getChildCount() > node.getReplies().size());
+        }
+        return roots;
+    }
+
+    // Dedupe user ids and resolve them with one batched gRPC call
+    private Map<Long, UserDTO> resolveUsers(Stream<Long> userIds) {
+        Set<Long> ids = userIds.collect(Collectors.toSet());
+        Map<Long, UserDTO> users = new HashMap<>();
+        try {
+            userClient.getUsersByIds(ids)
+                    .forEach((id, user) -> users.put(id, UserDTO.fromGrpcResponse(user)));
+        } catch (Exception e) {
+            // Log error but continue - return rows without user info
+            log.warn("Failed to fetch users {}", ids, e);
+        }
+        return users;
     }
 }
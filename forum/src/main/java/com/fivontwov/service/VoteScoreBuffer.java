@@ -0,0 +1,199 @@
+package com.fivontwov.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer cho upvotes/downvotes/score đã denormalize trên bảng topics.
+ *
+ * Mỗi lượt vote chỉ cộng delta vào bộ đếm in-memory của topic (hai LongAdder, striped theo luồng),
+ * nên topic "hot" không dồn mọi click vào một khóa; một job định kỳ gom delta và ghi bằng một
+ * batch UPDATE duy nhất, nên cũng không còn tranh chấp khóa dòng trên mỗi click.
+ *
+ * topic_votes vẫn là nguồn sự thật: delta chưa flush sẽ mất nếu process crash, vì vậy bộ đếm
+ * được đối soát lại từ topic_votes khi khởi động và theo chu kỳ. Đối soát bỏ qua topic vừa có vote
+ * trong reconcile-quiet-period (delta có thể còn nằm trong buffer của một node nào đó, ghi đè bằng
+ * COUNT(*) rồi flush tiếp sẽ cộng hai lần) và topic còn delta chưa flush được ở node này.
+ */
+@Component
+@Slf4j
+public class VoteScoreBuffer {
+
+    // Cells idle for this many flushes are dropped so the map only holds recently voted topics
+    private static final int EVICT_AFTER_IDLE_FLUSHES = 60;
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE topics SET upvotes = upvotes + ?, downvotes = downvotes + ?, score = score + ? WHERE id = ?";
+
+    private static final String RECONCILE_SQL = """
+            UPDATE topics t
+            SET upvotes = COALESCE(v.up, 0),
+                downvotes = COALESCE(v.down, 0),
+                score = COALESCE(v.up, 0) - COALESCE(v.down, 0)
+            FROM topics t2
+            LEFT JOIN (
+                SELECT topic_id,
+                       COUNT(*) FILTER (WHERE value = 1) AS up,
+                       COUNT(*) FILTER (WHERE value = -1) AS down
+                FROM topic_votes
+                GROUP BY topic_id
+            ) v ON v.topic_id = t2.id
+            WHERE t.id = t2.id
+              AND (t.upvotes <> COALESCE(v.up, 0) OR t.downvotes <> COALESCE(v.down, 0))
+              AND NOT EXISTS (
+                  SELECT 1 FROM topic_votes rv
+                  WHERE rv.topic_id = t.id
+                    AND rv.voted_at > now() - make_interval(secs => ?)
+              )
+              AND NOT (t.id = ANY (?::bigint[]))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration reconcileQuietPeriod;
+
+    private final Map<Long, VoteCell> pending = new ConcurrentHashMap<>();
+
+    // Not a monitor: the batch UPDATE runs while it is held, which would pin a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public VoteScoreBuffer(JdbcTemplate jdbcTemplate,
+                           @Value("${forum.votes.reconcile-quiet-period:30s}") Duration reconcileQuietPeriod) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reconcileQuietPeriod = reconcileQuietPeriod;
+    }
+
+    /**
+     * Record a vote change once the surrounding transaction commits,
+     * so rolled-back votes never reach the counters.
+     */
+    public void record(Long topicId, int upDelta, int downDelta) {
+        if (upDelta == 0 && downDelta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cell(topicId).add(upDelta, downDelta);
+                }
+            });
+        } else {
+            cell(topicId).add(upDelta, downDelta);
+        }
+    }
+
+    private VoteCell cell(Long topicId) {
+        // get() first: computeIfAbsent on a present key may still lock the bin
+        VoteCell cell = pending.get(topicId);
+        return cell != null ? cell : pending.computeIfAbsent(topicId, id -> new VoteCell());
+    }
+
+    @Scheduled(fixedDelayString = "${forum.votes.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            // Sorted by topic id so concurrent flushes from several nodes lock rows in the same order
+            Map<Long, long[]> drained = new TreeMap<>();
+            pending.forEach((topicId, cell) -> {
+                long up = cell.up.sumThenReset();
+                long down = cell.down.sumThenReset();
+                if (up != 0 || down != 0) {
+                    cell.idleFlushes = 0;
+                    drained.put(topicId, new long[]{up, down});
+                } else if (++cell.idleFlushes >= EVICT_AFTER_IDLE_FLUSHES) {
+                    // A vote racing with the eviction can land on the detached cell and be lost;
+                    // the topic is idle by then, so the next reconcile restores it from topic_votes
+                    pending.remove(topicId, cell);
+                }
+            });
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> args = new ArrayList<>(drained.size());
+            drained.forEach((topicId, d) -> args.add(new Object[]{d[0], d[1], d[0] - d[1], topicId}));
+            try {
+                jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+                log.debug("Flushed vote deltas for {} topics", drained.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to flush vote deltas for {} topics, will retry", drained.size(), e);
+                drained.forEach((topicId, d) -> cell(topicId).add(d[0], d[1]));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${forum.votes.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${forum.votes.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        flushLock.lock();
+        try {
+            flush();
+            // Deltas this node could not flush (database errors) are not in the counters yet
+            String unflushed = pending.entrySet().stream()
+                    .filter(e -> !e.getValue().isZero())
+                    .map(e -> String.valueOf(e.getKey()))
+                    .collect(Collectors.joining(",", "{", "}"));
+            int fixed = jdbcTemplate.update(RECONCILE_SQL, reconcileQuietPeriod.toMillis() / 1000.0, unflushed);
+            if (fixed > 0) {
+                log.info("Reconciled vote counters of {} topics from topic_votes", fixed);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class VoteCell {
+        final LongAdder up = new LongAdder();
+        final LongAdder down = new LongAdder();
+        // Only touched by flush(), under flushLock
+        int idleFlushes;
+
+        void add(long upDelta, long downDelta) {
+            if (upDelta != 0) {
+                up.add(upDelta);
+            }
+            if (downDelta != 0) {
+                down.add(downDelta);
+            }
+        }
+
+        boolean isZero() {
+            return up.sum() == 0 && down.sum() == 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.fivontwov.transfer;
+
+import com.fivontwov.transfer.dto.ImportResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Export/import toàn bộ dữ liệu forum dạng NDJSON. Endpoint không có phân quyền riêng, nên chỉ được
+ * đăng ký khi bật forum.transfer.enabled=true (mặc định tắt), vd. trên một instance nội bộ khi migrate.
+ */
+@RestController
+@RequestMapping("/admin")
+@ConditionalOnProperty(name = "forum.transfer.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class BulkTransferController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final NdjsonExporter exporter;
+    private final NdjsonImporter importer;
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"forum-" + LocalDate.now() + ".ndjson\"");
+        exporter.export(response.getOutputStream());
+    }
+
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public ResponseEntity<ImportResult> importNdjson(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(importer.importFrom(request.getInputStream()));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.fivontwov.transfer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fivontwov.transfer.dto.BulkRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Ghi toàn bộ topics, comments, topic_votes ra NDJSON (một {@link BulkRecord} mỗi dòng).
+ *
+ * Đọc bằng cursor forward-only của PostgreSQL (autocommit tắt + fetch size cố định) và ghi thẳng
+ * từng dòng ResultSet ra stream bằng JsonGenerator, không tạo entity, nên bộ nhớ không phụ thuộc
+ * kích thước bảng. Cả ba bảng được đọc trong cùng một snapshot REPEATABLE READ để comment/vote
+ * không trỏ tới topic không có trong file. Thứ tự: topics → comments → votes, mỗi bảng theo id,
+ * đúng thứ tự mà import cần (khóa ngoại, comment cha trước comment con).
+ */
+@Service
+@Slf4j
+public class NdjsonExporter {
+
+    private static final String TOPICS_SQL =
+            "SELECT id, user_id, title, body, created_at, upvotes, downvotes, score FROM topics ORDER BY id";
+    private static final String COMMENTS_SQL =
+            "SELECT id, topic_id, parent_comment_id, user_id, body, created_at FROM comments ORDER BY id";
+    private static final String VOTES_SQL =
+            "SELECT id, topic_id, user_id, value, created_at FROM topic_votes ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate snapshotTx;
+    private final int fetchSize;
+
+    public NdjsonExporter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${forum.transfer.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setReadOnly(true);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * @return number of rows written
+     */
+    public long export(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            // One object per line; the newline is written explicitly after each object
+            gen.setRootValueSeparator(null);
+
+            Long rows = snapshotTx.execute(status ->
+                    stream(TOPICS_SQL, gen, this::writeTopic)
+                            + stream(COMMENTS_SQL, gen, this::writeComment)
+                            + stream(VOTES_SQL, gen, this::writeVote));
+
+            log.info("Exported {} rows as NDJSON in {} ms", rows, System.currentTimeMillis() - start);
+            return rows == null ? 0 : rows;
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long stream(String sql, JsonGenerator gen, RowWriter writer) {
+        long[] count = new long[1];
+        PreparedStatementCreator forwardOnly = con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        };
+        jdbcTemplate.query(forwardOnly, rs -> {
+            try {
+                gen.writeStartObject();
+                writer.write(rs, gen);
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                count[0]++;
+            } catch (IOException e) {
+                // Client went away: abort the query instead of reading the rest of the table
+                throw new UncheckedIOException(e);
+            }
+        });
+        return count[0];
+    }
+
+    private void writeTopic(ResultSet rs, JsonGenerator gen) throws SQLException, IOException {
+        gen.writeStringField("type", BulkRecord.TOPIC);
+        gen.writeNumberField("id", rs.getLong("id"));
+        gen.writeNumberField("userId", rs.getLong("user_id"));
+        writeNullableString(gen, "title", rs.getString("title"));
+        writeNullableString(gen, "body", rs.getString("body"));
+        writeTimestamp(gen, rs.getTimestamp("created_at"));
+        gen.writeNumberField("upvotes", rs.getLong("upvotes"));
+        gen.writeNumberField("downvotes", rs.getLong("downvotes"));
+        gen.writeNumberField("score", rs.getLong("score"));
+    }
+
+    private void writeComment(ResultSet rs, JsonGenerator gen) throws SQLException, IOException {
+        gen.writeStringField("type", BulkRecord.COMMENT);
+        gen.writeNumberField("id", rs.getLong("id"));
+        gen.writeNumberField("topicId", rs.getLong("topic_id"));
+        long parentId = rs.getLong("parent_comment_id");
+        if (!rs.wasNull()) {
+            gen.writeNumberField("parentCommentId", parentId);
+        }
+        gen.writeNumberField("userId", rs.getLong("user_id"));
+        writeNullableString(gen, "body", rs.getString("body"));
+        writeTimestamp(gen, rs.getTimestamp("created_at"));
+    }
+
+    private void writeVote(ResultSet rs, JsonGenerator gen) throws SQLException, IOException {
+        gen.writeStringField("type", BulkRecord.VOTE);
+        gen.writeNumberField("id", rs.getLong("id"));
+        gen.writeNumberField("topicId", rs.getLong("topic_id"));
+        gen.writeNumberField("userId", rs.getLong("user_id"));
+        gen.writeNumberField("value", rs.getInt("value"));
+        writeTimestamp(gen, rs.getTimestamp("created_at"));
+    }
+
+    private static void writeNullableString(JsonGenerator gen, String field, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(field, value);
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator gen, Timestamp createdAt) throws IOException {
+        if (createdAt != null) {
+            gen.writeStringField("createdAt", createdAt.toInstant().toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs, JsonGenerator gen) throws SQLException, IOException;
+    }
+}
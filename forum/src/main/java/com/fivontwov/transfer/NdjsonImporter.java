@@ -0,0 +1,250 @@
+package com.fivontwov.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fivontwov.service.HotTopicsRanker;
+import com.fivontwov.transfer.dto.BulkRecord;
+import com.fivontwov.transfer.dto.ImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Nạp file NDJSON do {@link NdjsonExporter} tạo ra.
+ *
+ * File được đọc từng dòng (MappingIterator), gom theo loại rồi ghi mỗi batch bằng một câu
+ * INSERT ... SELECT FROM unnest(mảng từng cột); mỗi batch tự commit nên bộ nhớ chỉ phụ thuộc batch-size.
+ * ON CONFLICT DO NOTHING giữ nguyên id gốc và bỏ qua dòng đã có, nên chạy lại import sau khi bị ngắt
+ * giữa chừng là an toàn. Số dòng thật sự được ghi lấy từ update count của câu lệnh (JDBC batch với
+ * reWriteBatchedInserts chỉ trả SUCCESS_NO_INFO, không phân biệt được dòng bị bỏ qua).
+ *
+ * Dòng JSON hỏng hoặc thiếu field bắt buộc → IllegalArgumentException (400); các dòng hợp lệ đọc trước đó vẫn được ghi.
+ *
+ * Trước khi ghi comment thì topics đang chờ được flush trước, trước vote thì comments — đảm bảo
+ * khóa ngoại dù file không theo thứ tự export.
+ */
+@Service
+@Slf4j
+public class NdjsonImporter {
+
+    private static final String INSERT_TOPICS =
+            "INSERT INTO topics (id, user_id, title, body, created_at, upvotes, downvotes, score) "
+                    + "SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::text[], ?::text[], ?::timestamp[], "
+                    + "?::bigint[], ?::bigint[], ?::bigint[]) ON CONFLICT DO NOTHING";
+    private static final String INSERT_COMMENTS =
+            "INSERT INTO comments (id, topic_id, parent_comment_id, user_id, body, created_at) "
+                    + "SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::bigint[], ?::text[], ?::timestamp[]) "
+                    + "ON CONFLICT DO NOTHING";
+    private static final String INSERT_VOTES =
+            "INSERT INTO topic_votes (id, topic_id, user_id, value, created_at) "
+                    + "SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::int[], ?::timestamp[]) "
+                    + "ON CONFLICT DO NOTHING";
+
+    private static final List<Column> TOPIC_COLUMNS = List.of(
+            new Column("bigint", BulkRecord::getId),
+            new Column("bigint", BulkRecord::getUserId),
+            new Column("text", BulkRecord::getTitle),
+            new Column("text", BulkRecord::getBody),
+            new Column("timestamp", r -> timestamp(r.getCreatedAt())),
+            new Column("bigint", r -> orZero(r.getUpvotes())),
+            new Column("bigint", r -> orZero(r.getDownvotes())),
+            new Column("bigint", r -> orZero(r.getScore())));
+    private static final List<Column> COMMENT_COLUMNS = List.of(
+            new Column("bigint", BulkRecord::getId),
+            new Column("bigint", BulkRecord::getTopicId),
+            new Column("bigint", BulkRecord::getParentCommentId),
+            new Column("bigint", BulkRecord::getUserId),
+            new Column("text", BulkRecord::getBody),
+            new Column("timestamp", r -> timestamp(r.getCreatedAt())));
+    private static final List<Column> VOTE_COLUMNS = List.of(
+            new Column("bigint", BulkRecord::getId),
+            new Column("bigint", BulkRecord::getTopicId),
+            new Column("bigint", BulkRecord::getUserId),
+            new Column("int", BulkRecord::getValue),
+            new Column("timestamp", r -> timestamp(r.getCreatedAt())));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final HotTopicsRanker hotTopicsRanker;
+    private final int batchSize;
+
+    public NdjsonImporter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          HotTopicsRanker hotTopicsRanker,
+                          @Value("${forum.transfer.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.hotTopicsRanker = hotTopicsRanker;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importFrom(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+        Batches batches = new Batches();
+
+        try (MappingIterator<BulkRecord> records = objectMapper.readerFor(BulkRecord.class).readValues(in)) {
+            while (records.hasNextValue()) {
+                BulkRecord record = records.nextValue();
+                long line = records.getCurrentLocation().getLineNr();
+                if (record.getType() == null) {
+                    throw new IllegalArgumentException("Missing type at line " + line);
+                }
+                require(record.getId(), "id", line);
+                switch (record.getType()) {
+                    case BulkRecord.TOPIC -> {
+                        require(record.getUserId(), "userId", line);
+                        batches.addTopic(record);
+                    }
+                    case BulkRecord.COMMENT -> {
+                        require(record.getTopicId(), "topicId", line);
+                        require(record.getUserId(), "userId", line);
+                        batches.addComment(record);
+                    }
+                    case BulkRecord.VOTE -> {
+                        require(record.getTopicId(), "topicId", line);
+                        require(record.getUserId(), "userId", line);
+                        require(record.getValue(), "value", line);
+                        batches.addVote(record);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown type '" + record.getType()
+                            + "' at line " + line);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            String line = e.getLocation() != null ? String.valueOf(e.getLocation().getLineNr()) : "?";
+            throw keepRowsRead(batches, new IllegalArgumentException(
+                    "Malformed record at line " + line + ": " + e.getOriginalMessage(), e));
+        } catch (IllegalArgumentException e) {
+            throw keepRowsRead(batches, e);
+        }
+        batches.flushAll();
+
+        // Scores and comment counts changed underneath the ranker
+        hotTopicsRanker.bootstrap();
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Imported topics={} comments={} votes={} skipped={} in {} ms",
+                batches.topicsInserted, batches.commentsInserted, batches.votesInserted, batches.skipped, duration);
+        return new ImportResult(batches.topicsInserted, batches.commentsInserted, batches.votesInserted,
+                batches.skipped, duration);
+    }
+
+    // Rows read before the bad line are valid, so write them; a failure doing so must not hide the parse error
+    private IllegalArgumentException keepRowsRead(Batches batches, IllegalArgumentException error) {
+        try {
+            batches.flushAll();
+            hotTopicsRanker.bootstrap();
+        } catch (RuntimeException flushFailure) {
+            error.addSuppressed(flushFailure);
+        }
+        return error;
+    }
+
+    private static void require(Object value, String field, long line) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + field + " at line " + line);
+        }
+    }
+
+    private class Batches {
+
+        private final List<BulkRecord> topics = new ArrayList<>(batchSize);
+        private final List<BulkRecord> comments = new ArrayList<>(batchSize);
+        private final List<BulkRecord> votes = new ArrayList<>(batchSize);
+
+        private long topicsInserted;
+        private long commentsInserted;
+        private long votesInserted;
+        private long skipped;
+
+        void addTopic(BulkRecord record) {
+            topics.add(record);
+            if (topics.size() >= batchSize) {
+                flushTopics();
+            }
+        }
+
+        void addComment(BulkRecord record) {
+            comments.add(record);
+            if (comments.size() >= batchSize) {
+                flushTopics();
+                flushComments();
+            }
+        }
+
+        void addVote(BulkRecord record) {
+            votes.add(record);
+            if (votes.size() >= batchSize) {
+                flushTopics();
+                flushVotes();
+            }
+        }
+
+        void flushAll() {
+            flushTopics();
+            flushComments();
+            flushVotes();
+        }
+
+        private void flushTopics() {
+            topicsInserted += insert(INSERT_TOPICS, TOPIC_COLUMNS, topics);
+        }
+
+        private void flushComments() {
+            commentsInserted += insert(INSERT_COMMENTS, COMMENT_COLUMNS, comments);
+        }
+
+        private void flushVotes() {
+            votesInserted += insert(INSERT_VOTES, VOTE_COLUMNS, votes);
+        }
+
+        // One statement per batch; its update count excludes rows skipped by ON CONFLICT
+        private long insert(String sql, List<Column> columns, List<BulkRecord> rows) {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            try {
+                int inserted = jdbcTemplate.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    for (int i = 0; i < columns.size(); i++) {
+                        Column column = columns.get(i);
+                        Object[] values = new Object[rows.size()];
+                        for (int j = 0; j < values.length; j++) {
+                            values[j] = column.value().apply(rows.get(j));
+                        }
+                        ps.setArray(i + 1, con.createArrayOf(column.sqlType(), values));
+                    }
+                    return ps;
+                });
+                skipped += rows.size() - inserted;
+                return inserted;
+
+            } finally {
+                // A failed batch is dropped, not resubmitted by a later flush
+                rows.clear();
+            }
+        }
+    }
+
+    private record Column(String sqlType, Function<BulkRecord, Object> value) {
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return Timestamp.from(instant != null ? instant : Instant.now());
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
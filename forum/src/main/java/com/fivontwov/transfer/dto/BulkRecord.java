@@ -0,0 +1,37 @@
+package com.fivontwov.transfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Một dòng NDJSON của export/import. type quyết định các field còn lại:
+ *
+ *   topic:   id, userId, title, body, createdAt, upvotes, downvotes, score
+ *   comment: id, topicId, parentCommentId, userId, body, createdAt
+ *   vote:    id, topicId, userId, value, createdAt
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRecord {
+
+    public static final String TOPIC = "topic";
+    public static final String COMMENT = "comment";
+    public static final String VOTE = "vote";
+
+    private String type;
+    private Long id;
+    private Long topicId;
+    private Long parentCommentId;
+    private Long userId;
+    private String title;
+    private String body;
+    private Instant createdAt;
+    private Long upvotes;
+    private Long downvotes;
+    private Long score;
+    private Integer value;
+}
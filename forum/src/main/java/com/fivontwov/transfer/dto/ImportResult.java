@@ -0,0 +1,20 @@
+package com.fivontwov.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kết quả POST /admin/import. inserted + skipped = số dòng mỗi loại;
+ * skipped là dòng đã tồn tại (trùng id / trùng vote) nên import lại cùng một file là an toàn.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private long topicsInserted;
+    private long commentsInserted;
+    private long votesInserted;
+    private long skipped;
+    private long durationMs;
+}
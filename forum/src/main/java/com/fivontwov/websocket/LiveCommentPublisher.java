@@ -0,0 +1,49 @@
+package com.fivontwov.websocket;
+
+import com.fivontwov.websocket.cluster.ClusterFanout;
+import com.fivontwov.websocket.dto.CommentDelta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Push comment mới tới người đang xem topic: /topic/forum/{topicId}/comments
+ *
+ * Chỉ gửi sau khi transaction commit, để client không bao giờ thấy comment bị rollback
+ * và catch-up (GET /topics/{topicId}/comments/since) luôn tìm lại được comment đã push.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveCommentPublisher {
+
+    private final ClusterFanout clusterFanout;
+
+    public void publishAfterCommit(CommentDelta delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(delta);
+                }
+            });
+        } else {
+            publish(delta);
+        }
+    }
+
+    private void publish(CommentDelta delta) {
+        try {
+            clusterFanout.broadcast(destination(delta.getTopicId()), delta);
+        } catch (RuntimeException e) {
+            // Best effort: clients catch up through the REST endpoint
+            log.warn("Failed to push comment {} of topic {}", delta.getId(), delta.getTopicId(), e);
+        }
+    }
+
+    public static String destination(Long topicId) {
+        return "/topic/forum/" + topicId + "/comments";
+    }
+}
@@ -0,0 +1,103 @@
+package com.fivontwov.websocket;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Đếm subscriber STOMP trên node này theo destination (SUBSCRIBE / UNSUBSCRIBE / DISCONNECT).
+ *
+ * SimpleBroker không cho hỏi "destination này có ai nghe không", nên fan-out giữa các node dùng
+ * registry này để lọc frame và để báo cho node khác biết node này quan tâm destination nào.
+ */
+@Component
+public class LocalSubscriptionRegistry {
+
+    // sessionId -> subscriptionId -> destination
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    // Bumped whenever a destination gets its first subscriber
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        String destination = accessor.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        increment(destination);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessions.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        // May be published more than once per session; remove() makes the second one a no-op
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return counts.containsKey(destination);
+    }
+
+    public int subscriberCount(String destination) {
+        AtomicInteger count = counts.get(destination);
+        return count == null ? 0 : count.get();
+    }
+
+    public Set<String> destinations() {
+        return Set.copyOf(counts.keySet());
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    private void increment(String destination) {
+        counts.compute(destination, (d, count) -> {
+            if (count == null) {
+                version.incrementAndGet();
+                return new AtomicInteger(1);
+            }
+            count.incrementAndGet();
+            return count;
+        });
+    }
+
+    private void decrement(String destination) {
+        counts.computeIfPresent(destination, (d, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+}
@@ -0,0 +1,304 @@
+package com.fivontwov.websocket;
+
+import com.fivontwov.websocket.cluster.ClusterFanout;
+import com.fivontwov.websocket.dto.PresenceUpdate;
+import com.fivontwov.websocket.dto.ViewerCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Theo dõi ai đang xem topic nào: một session "xem" topic khi có ít nhất một subscription
+ * dưới /topic/forum/{topicId}/ (typing, comments, presence...).
+ *
+ * - Mỗi SUBSCRIBE / UNSUBSCRIBE là O(1): chỉ đụng tới session đó và bộ đếm của một topic;
+ *   DISCONNECT là O(số subscription của session)
+ * - Số người xem được push tới /topic/forum/{topicId}/presence tối đa một lần mỗi flush-interval,
+ *   chỉ khi con số thay đổi
+ * - Nhiều node: mỗi node gửi thay đổi bộ đếm local của mình cho mọi node khác (gộp theo flush-interval,
+ *   kèm snapshot đầy đủ mỗi heartbeat-interval), tổng = local + các node khác
+ */
+@Component
+@Slf4j
+public class PresenceRegistry {
+
+    private static final String CLUSTER_CHANNEL = "presence";
+    private static final String TOPIC_PREFIX = "/topic/forum/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LocalSubscriptionRegistry subscriptions;
+    private final ClusterFanout clusterFanout;
+    private final long heartbeatIntervalMs;
+    private final long remoteTtlMs;
+
+    // sessionId -> topic subscriptions of that session
+    private final Map<String, SessionTopics> sessions = new ConcurrentHashMap<>();
+    // topicId -> number of sessions on this node viewing it
+    private final Map<Long, AtomicInteger> localViewers = new ConcurrentHashMap<>();
+    // nodeId -> viewers per topic on that node
+    private final Map<String, NodeViewers> remoteViewers = new ConcurrentHashMap<>();
+
+    // Local counts not yet sent to the other nodes
+    private final Set<Long> localChanged = ConcurrentHashMap.newKeySet();
+    // Topics whose total may have changed since the last push to local clients
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Topics with a new presence subscriber, which needs the current count even if it did not change
+    private final Set<Long> resend = ConcurrentHashMap.newKeySet();
+    // Last total pushed to local clients; only touched by flush()
+    private final Map<Long, Integer> published = new HashMap<>();
+    private long lastHeartbeatMs;
+
+    public PresenceRegistry(SimpMessagingTemplate messagingTemplate,
+                            LocalSubscriptionRegistry subscriptions,
+                            ClusterFanout clusterFanout,
+                            @Value("${forum.ws.presence.heartbeat-interval-ms:10000}") long heartbeatIntervalMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.subscriptions = subscriptions;
+        this.clusterFanout = clusterFanout;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.remoteTtlMs = heartbeatIntervalMs * 3;
+
+        clusterFanout.registerHandler(CLUSTER_CHANNEL, PresenceUpdate.class, this::onRemoteUpdate);
+    }
+
+    /**
+     * Current viewers of a topic across all known nodes.
+     */
+    public int viewers(Long topicId) {
+        AtomicInteger local = localViewers.get(topicId);
+        int total = local == null ? 0 : local.get();
+        long now = System.currentTimeMillis();
+        for (NodeViewers node : remoteViewers.values()) {
+            if (now - node.seenAtMs <= remoteTtlMs) {
+                total += node.viewers.getOrDefault(topicId, 0);
+            }
+        }
+        return total;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        long topicId = parseTopicId(accessor.getDestination());
+        if (topicId < 0 || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        SessionTopics session = sessions.computeIfAbsent(accessor.getSessionId(), id -> new SessionTopics());
+        if (session.add(accessor.getSubscriptionId(), topicId)) {
+            join(topicId);
+        }
+        if (destination(topicId).equals(accessor.getDestination())) {
+            resend.add(topicId);
+            dirty.add(topicId);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionTopics session = sessions.get(accessor.getSessionId());
+        if (session == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        long leftTopic = session.remove(accessor.getSubscriptionId());
+        if (leftTopic >= 0) {
+            leave(leftTopic);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionTopics session = sessions.remove(event.getSessionId());
+        if (session != null) {
+            for (long topicId : session.topics()) {
+                leave(topicId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${forum.ws.presence.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        sendToCluster(now);
+        expireRemoteNodes(now);
+        publishToLocalClients();
+    }
+
+    private void sendToCluster(long now) {
+        Map<Long, Integer> counts = new HashMap<>();
+        boolean full = now - lastHeartbeatMs >= heartbeatIntervalMs;
+        if (full) {
+            localChanged.clear();
+            localViewers.forEach((topicId, count) -> counts.put(topicId, count.get()));
+            lastHeartbeatMs = now;
+        } else {
+            Iterator<Long> it = localChanged.iterator();
+            while (it.hasNext()) {
+                Long topicId = it.next();
+                it.remove();
+                AtomicInteger count = localViewers.get(topicId);
+                counts.put(topicId, count == null ? 0 : count.get());
+            }
+            if (counts.isEmpty()) {
+                return;
+            }
+        }
+        clusterFanout.forwardToAll(CLUSTER_CHANNEL, new PresenceUpdate(clusterFanout.nodeId(), full, counts));
+    }
+
+    private void expireRemoteNodes(long now) {
+        remoteViewers.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().seenAtMs <= remoteTtlMs) {
+                return false;
+            }
+            dirty.addAll(entry.getValue().viewers.keySet());
+            return true;
+        });
+    }
+
+    private void publishToLocalClients() {
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext()) {
+            Long topicId = it.next();
+            it.remove();
+
+            String destination = destination(topicId);
+            if (!subscriptions.hasSubscribers(destination)) {
+                published.remove(topicId);
+                continue;
+            }
+            int total = viewers(topicId);
+            Integer last = published.get(topicId);
+            if (!resend.remove(topicId) && last != null && last == total) {
+                continue;
+            }
+            messagingTemplate.convertAndSend(destination, new ViewerCount(topicId, total));
+            if (total == 0) {
+                published.remove(topicId);
+            } else {
+                published.put(topicId, total);
+            }
+        }
+    }
+
+    private void onRemoteUpdate(PresenceUpdate update) {
+        NodeViewers node = remoteViewers.computeIfAbsent(update.getNodeId(), id -> new NodeViewers());
+        Map<Long, Integer> viewers = update.getViewers() == null ? Map.of() : update.getViewers();
+        if (update.isFull()) {
+            // Topics the node no longer reports dropped to zero there
+            for (Long topicId : node.viewers.keySet()) {
+                if (!viewers.containsKey(topicId)) {
+                    node.viewers.remove(topicId);
+                    dirty.add(topicId);
+                }
+            }
+        }
+        viewers.forEach((topicId, count) -> {
+            if (count <= 0) {
+                node.viewers.remove(topicId);
+            } else {
+                node.viewers.put(topicId, count);
+            }
+            dirty.add(topicId);
+        });
+        node.seenAtMs = System.currentTimeMillis();
+    }
+
+    private void join(long topicId) {
+        localViewers.compute(topicId, (id, count) -> {
+            if (count == null) {
+                return new AtomicInteger(1);
+            }
+            count.incrementAndGet();
+            return count;
+        });
+        localChanged.add(topicId);
+        dirty.add(topicId);
+    }
+
+    private void leave(long topicId) {
+        localViewers.computeIfPresent(topicId, (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+        localChanged.add(topicId);
+        dirty.add(topicId);
+    }
+
+    /**
+     * /topic/forum/{topicId}/... -> topicId, or -1. Parsed in place, no substring allocation.
+     */
+    static long parseTopicId(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return -1;
+        }
+        long id = 0;
+        int digits = 0;
+        for (int i = TOPIC_PREFIX.length(); i < destination.length(); i++) {
+            char ch = destination.charAt(i);
+            if (ch == '/') {
+                break;
+            }
+            if (ch < '0' || ch > '9' || ++digits > 18) {
+                return -1;
+            }
+            id = id * 10 + (ch - '0');
+        }
+        return digits == 0 ? -1 : id;
+    }
+
+    public static String destination(Long topicId) {
+        return TOPIC_PREFIX + topicId + "/presence";
+    }
+
+    /**
+     * Subscriptions of one session that point at a topic. A session holds a handful of them,
+     * so the scans below are effectively constant time.
+     */
+    private static final class SessionTopics {
+        private final Map<String, Long> subscriptions = new HashMap<>(4);
+
+        // true if this is the session's first subscription on the topic
+        synchronized boolean add(String subscriptionId, long topicId) {
+            subscriptions.put(subscriptionId, topicId);
+            return count(topicId) == 1;
+        }
+
+        // topic the session stopped viewing because of this removal, or -1
+        synchronized long remove(String subscriptionId) {
+            Long topicId = subscriptions.remove(subscriptionId);
+            return topicId != null && count(topicId) == 0 ? topicId : -1;
+        }
+
+        synchronized Set<Long> topics() {
+            return new HashSet<>(subscriptions.values());
+        }
+
+        private int count(long topicId) {
+            int n = 0;
+            for (Long id : subscriptions.values()) {
+                if (id == topicId) {
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+
+    private static final class NodeViewers {
+        final Map<Long, Integer> viewers = new ConcurrentHashMap<>();
+        volatile long seenAtMs;
+    }
+}
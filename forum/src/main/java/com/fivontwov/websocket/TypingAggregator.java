@@ -0,0 +1,147 @@
+package com.fivontwov.websocket;
+
+import com.fivontwov.websocket.cluster.ClusterFanout;
+import com.fivontwov.websocket.dto.TypingEvent;
+import com.fivontwov.websocket.dto.TypingSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gom typing event theo topic trước khi broadcast.
+ *
+ * - Debounce theo (topic, user): TYPING lặp lại của người đang gõ chỉ làm mới lastSeen, không tạo frame
+ * - Mỗi topic phát tối đa một TypingSnapshot mỗi flush-interval, và chỉ khi tập người gõ thực sự đổi
+ *   so với frame trước, nên cặp TYPING/STOPPED trong cùng một interval bị triệt tiêu
+ * - Người gõ không gửi gì trong typing-ttl (mất kết nối, quên STOPPED) bị loại khỏi danh sách
+ *
+ * Nhiều node: event làm đổi trạng thái (người gõ mới, STOPPED, hoặc nhắc lại sau typing-ttl/2) được
+ * chuyển qua ClusterFanout tới các node có người xem topic; mỗi node tự gộp và phát snapshot cho
+ * client của mình, nên snapshot luôn chứa người gõ trên mọi node.
+ */
+@Component
+@Slf4j
+public class TypingAggregator {
+
+    private static final String CLUSTER_CHANNEL = "typing";
+
+    private static final Comparator<TypingSnapshot.Typist> BY_USER_ID =
+            Comparator.comparing(TypingSnapshot.Typist::getUserId);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterFanout clusterFanout;
+    private final long typingTtlMs;
+
+    private final Map<Long, TopicTyping> topics = new ConcurrentHashMap<>();
+
+    public TypingAggregator(SimpMessagingTemplate messagingTemplate,
+                            ClusterFanout clusterFanout,
+                            @Value("${forum.ws.typing.ttl-ms:6000}") long typingTtlMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.clusterFanout = clusterFanout;
+        this.typingTtlMs = typingTtlMs;
+
+        // Events typed on other nodes: aggregate, never forward again
+        clusterFanout.registerHandler(CLUSTER_CHANNEL, TypingEvent.class, e -> apply(e.getTopicId(), e));
+    }
+
+    /**
+     * Typing event from a client connected to this node.
+     */
+    public void onTyping(Long topicId, TypingEvent event) {
+        event.setTopicId(topicId);
+        if (apply(topicId, event)) {
+            clusterFanout.forward(CLUSTER_CHANNEL, destination(topicId), event);
+        }
+    }
+
+    /**
+     * @return true when the event changed what other nodes know, i.e. it is worth forwarding
+     */
+    private boolean apply(Long topicId, TypingEvent event) {
+        Long userId = event.getUserId();
+        if (topicId == null || userId == null || event.getAction() == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+
+        if (event.getAction() == TypingEvent.Action.TYPING) {
+            boolean[] forward = new boolean[1];
+            // compute() keeps this atomic with the removal of idle topics in flush()
+            topics.compute(topicId, (id, state) -> {
+                TopicTyping s = state != null ? state : new TopicTyping();
+                Typist previous = s.typists.get(userId);
+                forward[0] = previous == null || now - previous.forwardedAtMs() >= typingTtlMs / 2;
+                long forwardedAtMs = forward[0] ? now : previous.forwardedAtMs();
+                s.typists.put(userId, new Typist(userId, event.getUserName(), now, forwardedAtMs));
+                return s;
+            });
+            return forward[0];
+        }
+
+        TopicTyping state = topics.get(topicId);
+        return state != null && state.typists.remove(userId) != null;
+    }
+
+    @Scheduled(fixedDelayString = "${forum.ws.typing.flush-interval-ms:300}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, TopicTyping> entry : topics.entrySet()) {
+            Long topicId = entry.getKey();
+            TopicTyping state = entry.getValue();
+
+            state.typists.values().removeIf(t -> now - t.lastSeenMs() > typingTtlMs);
+
+            Set<Long> current = Set.copyOf(state.typists.keySet());
+            if (!current.equals(state.published)) {
+                publish(topicId, state.typists.values());
+                state.published = current;
+            }
+
+            if (state.published.isEmpty()) {
+                topics.computeIfPresent(topicId, (id, s) -> s.typists.isEmpty() ? null : s);
+            }
+        }
+    }
+
+    private void publish(Long topicId, Iterable<Typist> typists) {
+        List<TypingSnapshot.Typist> list = new ArrayList<>();
+        for (Typist t : typists) {
+            list.add(new TypingSnapshot.Typist(t.userId(), t.userName()));
+        }
+        list.sort(BY_USER_ID);
+
+        TypingSnapshot snapshot = TypingSnapshot.builder()
+                .topicId(topicId)
+                .typists(list)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        log.debug("[WebSocket] Typing snapshot: topicId={}, typists={}", topicId, list.size());
+        // Local clients only: every node builds its own snapshot from the forwarded events
+        messagingTemplate.convertAndSend(destination(topicId), snapshot);
+    }
+
+    private static String destination(Long topicId) {
+        return "/topic/forum/" + topicId + "/typing";
+    }
+
+    private static final class TopicTyping {
+        final Map<Long, Typist> typists = new ConcurrentHashMap<>();
+        // Only touched by the flush thread
+        Set<Long> published = Set.of();
+    }
+
+    private record Typist(Long userId, String userName, long lastSeenMs, long forwardedAtMs) {
+    }
+}
@@ -12,7 +12,9 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * Endpoint kết nối : ws://localhost:{port}/ws  (hoặc qua Gateway: /api/forum/ws)
  *
  * Client SUBSCRIBE (nhận):
- *   /topic/forum/{topicId}/typing   ← typing events của 1 topic
+ *   /topic/forum/{topicId}/typing   ← danh sách người đang gõ của 1 topic (TypingSnapshot)
+ *   /topic/forum/{topicId}/comments ← comment mới của 1 topic (CommentDelta)
+ *   /topic/forum/{topicId}/presence ← số người đang xem topic (ViewerCount)
  *
  * Client SEND (gửi lên server):
  *   /app/forum/{topicId}/typing     ← gửi trạng thái đang gõ
@@ -24,6 +26,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // In-memory broker cho /topic/** và /queue/**
+        // Nhiều instance: frame giữa các node đi qua ClusterFanout (forum.ws.cluster.transport)
         registry.enableSimpleBroker("/topic", "/queue");
 
         // Prefix để phân biệt messages gửi TỪ client lên server
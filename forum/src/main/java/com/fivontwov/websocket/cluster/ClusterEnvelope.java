@@ -0,0 +1,33 @@
+package com.fivontwov.websocket.cluster;
+
+import java.util.Set;
+
+/**
+ * Đơn vị trao đổi giữa các forum node.
+ *
+ * @param kind          INTEREST: node nguồn thông báo các destination nó đang có subscriber (payload = JSON array)
+ *                      MESSAGE: một frame cho destination
+ * @param originNodeId  node gửi
+ * @param targetNodeIds node nhận; rỗng = mọi node
+ * @param channel       {@link ClusterFanout#STOMP_CHANNEL} để relay thẳng vào broker local, hoặc tên handler
+ * @param destination   STOMP destination mà frame hướng tới (dùng để lọc theo subscriber local)
+ * @param payload       JSON đã serialize sẵn
+ */
+public record ClusterEnvelope(
+        Kind kind,
+        String originNodeId,
+        Set<String> targetNodeIds,
+        String channel,
+        String destination,
+        byte[] payload
+) {
+
+    public enum Kind {
+        INTEREST,
+        MESSAGE
+    }
+
+    public boolean isAddressedTo(String nodeId) {
+        return targetNodeIds.isEmpty() || targetNodeIds.contains(nodeId);
+    }
+}
@@ -0,0 +1,269 @@
+package com.fivontwov.websocket.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fivontwov.websocket.LocalSubscriptionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Fan-out WebSocket giữa các forum node, không cần STOMP broker ngoài.
+ *
+ * Mỗi node định kỳ (và ngay khi có destination mới) thông báo tập destination /topic/** mà nó đang
+ * có subscriber. Khi gửi, frame chỉ được địa chỉ hóa tới các node đã báo quan tâm destination đó;
+ * không node nào quan tâm thì không có gì đi ra khỏi node. Node nhận kiểm tra lại subscriber local
+ * (thông báo có thể đã cũ) trước khi đưa frame vào SimpleBroker hoặc handler.
+ *
+ * Các kiểu gửi:
+ *   broadcast():    frame STOMP hoàn chỉnh, node nhận relay nguyên byte vào broker local
+ *   forward():      event thô cho một handler đăng ký theo channel (vd. typing cần gộp lại ở node nhận)
+ *   forwardToAll(): như forward() nhưng tới mọi node, không phụ thuộc subscriber (vd. số người xem)
+ */
+@Component
+@Slf4j
+public class ClusterFanout implements SmartLifecycle {
+
+    public static final String STOMP_CHANNEL = "stomp";
+
+    private static final String CLUSTER_PREFIX = "/topic/";
+    private static final TypeReference<Set<String>> DESTINATIONS = new TypeReference<>() {
+    };
+
+    private final ClusterTransport transport;
+    private final LocalSubscriptionRegistry subscriptions;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final long announceIntervalMs;
+    private final long interestTtlMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, RemoteInterest> remoteInterest = new ConcurrentHashMap<>();
+    private final Map<String, ChannelHandler<?>> handlers = new ConcurrentHashMap<>();
+
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+    private final Counter droppedCounter;
+
+    // Only touched by the announcing thread
+    private long announcedVersion = -1;
+    private long lastAnnounceMs;
+
+    private volatile boolean running;
+
+    public ClusterFanout(ClusterTransport transport,
+                         LocalSubscriptionRegistry subscriptions,
+                         SimpMessagingTemplate messagingTemplate,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${forum.ws.cluster.announce-interval-ms:5000}") long announceIntervalMs) {
+        this.transport = transport;
+        this.subscriptions = subscriptions;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.announceIntervalMs = announceIntervalMs;
+        this.interestTtlMs = announceIntervalMs * 3;
+        this.sentCounter = meterRegistry.counter("forum.ws.cluster.frames", "direction", "sent");
+        this.receivedCounter = meterRegistry.counter("forum.ws.cluster.frames", "direction", "received");
+        this.droppedCounter = meterRegistry.counter("forum.ws.cluster.frames", "direction", "dropped");
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Gửi payload tới subscriber của destination trên mọi node (kể cả node này).
+     */
+    public void broadcast(String destination, Object payload) {
+        if (subscriptions.hasSubscribers(destination)) {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+        sendToInterested(STOMP_CHANNEL, destination, payload);
+    }
+
+    /**
+     * Chuyển event tới handler của channel trên các node khác có subscriber cho destination.
+     * Node này không tự nhận lại event.
+     */
+    public void forward(String channel, String destination, Object payload) {
+        sendToInterested(channel, destination, payload);
+    }
+
+    /**
+     * Chuyển event tới handler của channel trên mọi node khác, kể cả node chưa có subscriber nào.
+     */
+    public void forwardToAll(String channel, Object payload) {
+        byte[] json = toJson(payload);
+        if (json != null) {
+            send(new ClusterEnvelope(ClusterEnvelope.Kind.MESSAGE, nodeId, Set.of(), channel, "", json));
+            sentCounter.increment();
+        }
+    }
+
+    public <T> void registerHandler(String channel, Class<T> type, Consumer<T> handler) {
+        handlers.put(channel, new ChannelHandler<>(type, handler));
+    }
+
+    @Override
+    public void start() {
+        transport.start(nodeId, this::onEnvelope);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Let the other nodes forget this one right away instead of waiting for the TTL
+        send(new ClusterEnvelope(ClusterEnvelope.Kind.INTEREST, nodeId, Set.of(), null, "", toJson(Set.of())));
+        transport.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Announce on the first subscriber of a new destination (checked every tick),
+     * and periodically so that remote entries do not expire.
+     */
+    @Scheduled(fixedDelayString = "${forum.ws.cluster.announce-check-ms:250}")
+    public void announceInterest() {
+        if (!running) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long version = subscriptions.version();
+        if (version == announcedVersion && now - lastAnnounceMs < announceIntervalMs) {
+            return;
+        }
+
+        Set<String> destinations = new HashSet<>();
+        for (String destination : subscriptions.destinations()) {
+            if (destination.startsWith(CLUSTER_PREFIX)) {
+                destinations.add(destination);
+            }
+        }
+        send(new ClusterEnvelope(ClusterEnvelope.Kind.INTEREST, nodeId, Set.of(), null, "", toJson(destinations)));
+        announcedVersion = version;
+        lastAnnounceMs = now;
+    }
+
+    void onEnvelope(ClusterEnvelope envelope) {
+        try {
+            if (envelope.kind() == ClusterEnvelope.Kind.INTEREST) {
+                Set<String> destinations = objectMapper.readValue(envelope.payload(), DESTINATIONS);
+                if (destinations.isEmpty()) {
+                    remoteInterest.remove(envelope.originNodeId());
+                } else {
+                    remoteInterest.put(envelope.originNodeId(),
+                            new RemoteInterest(destinations, System.currentTimeMillis()));
+                }
+                return;
+            }
+
+            String destination = envelope.destination();
+            // No destination: forwardToAll(), meant for every node
+            if (!destination.isEmpty() && !subscriptions.hasSubscribers(destination)) {
+                droppedCounter.increment();
+                return;
+            }
+            receivedCounter.increment();
+
+            if (STOMP_CHANNEL.equals(envelope.channel())) {
+                // Already JSON: relay the bytes without a decode/encode round trip. A plain header map
+                // would end up as STOMP native headers, so set content-type on a SimpMessageHeaderAccessor
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+                accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+                accessor.setLeaveMutable(true);
+                messagingTemplate.send(destination,
+                        MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+                return;
+            }
+            ChannelHandler<?> handler = handlers.get(envelope.channel());
+            if (handler != null) {
+                handler.accept(objectMapper, envelope.payload());
+            }
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot handle WebSocket fan-out frame from node {}, destination={}",
+                    envelope.originNodeId(), envelope.destination(), e);
+        }
+    }
+
+    private void sendToInterested(String channel, String destination, Object payload) {
+        Set<String> targets = interestedNodes(destination);
+        if (targets.isEmpty()) {
+            return;
+        }
+        byte[] json = toJson(payload);
+        if (json != null) {
+            send(new ClusterEnvelope(ClusterEnvelope.Kind.MESSAGE, nodeId, targets, channel, destination, json));
+            sentCounter.increment();
+        }
+    }
+
+    private Set<String> interestedNodes(String destination) {
+        long now = System.currentTimeMillis();
+        Set<String> targets = null;
+        Iterator<Map.Entry<String, RemoteInterest>> it = remoteInterest.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, RemoteInterest> entry = it.next();
+            RemoteInterest interest = entry.getValue();
+            if (now - interest.receivedAtMs() > interestTtlMs) {
+                it.remove();
+            } else if (interest.destinations().contains(destination)) {
+                if (targets == null) {
+                    targets = new HashSet<>();
+                }
+                targets.add(entry.getKey());
+            }
+        }
+        return targets == null ? Set.of() : targets;
+    }
+
+    private void send(ClusterEnvelope envelope) {
+        try {
+            transport.send(envelope);
+        } catch (RuntimeException e) {
+            log.warn("Failed to send WebSocket fan-out {} frame", envelope.kind(), e);
+        }
+    }
+
+    private byte[] toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize WebSocket fan-out payload {}", payload.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
+    private record RemoteInterest(Set<String> destinations, long receivedAtMs) {
+    }
+
+    private record ChannelHandler<T>(Class<T> type, Consumer<T> handler) {
+        void accept(ObjectMapper objectMapper, byte[] payload) throws IOException {
+            handler.accept(objectMapper.readValue(payload, type));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.fivontwov.websocket.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Kênh truyền giữa các forum node cho {@link ClusterFanout}.
+ *
+ * Implementation phải bỏ qua envelope do chính node này gửi và envelope không có node này trong
+ * targetNodeIds, càng sớm càng tốt (trước khi đọc payload).
+ */
+public interface ClusterTransport {
+
+    void start(String nodeId, Consumer<ClusterEnvelope> receiver);
+
+    void send(ClusterEnvelope envelope);
+
+    void stop();
+}
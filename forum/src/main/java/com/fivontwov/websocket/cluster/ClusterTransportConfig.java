@@ -0,0 +1,42 @@
+package com.fivontwov.websocket.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Chọn transport cho WebSocket fan-out giữa các node:
+ *   forum.ws.cluster.transport=kafka     → KafkaClusterTransport (nhiều pod)
+ *   forum.ws.cluster.transport=loopback  → chỉ node hiện tại (mặc định)
+ */
+@Configuration
+public class ClusterTransportConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "forum.ws.cluster.transport", havingValue = "kafka")
+    public ClusterTransport kafkaClusterTransport(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${forum.ws.cluster.kafka-topic:forum.ws.fanout}") String topic,
+            @Value("${forum.ws.cluster.kafka-group-id:}") String groupId) {
+        return new KafkaClusterTransport(bootstrapServers, topic, groupId.isBlank() ? defaultGroupId() : groupId);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "forum.ws.cluster.transport", havingValue = "loopback", matchIfMissing = true)
+    public ClusterTransport loopbackClusterTransport() {
+        return new LoopbackClusterTransport(new LoopbackClusterTransport.Hub());
+    }
+
+    // Mỗi instance phải có consumer group riêng để nhận mọi event. HOSTNAME là tên pod trong k8s/docker;
+    // không có HOSTNAME thì sinh id riêng cho process (pid có thể trùng giữa các container, nên thêm UUID)
+    private static String defaultGroupId() {
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return "forum-ws-fanout-" + hostname;
+        }
+        return "forum-ws-fanout-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID();
+    }
+}
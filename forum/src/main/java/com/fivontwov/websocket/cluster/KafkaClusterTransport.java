@@ -0,0 +1,145 @@
+package com.fivontwov.websocket.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Transport qua một Kafka topic dùng chung (mặc định forum.ws.fanout).
+ *
+ * Mỗi node đọc toàn bộ topic bằng group id riêng nhưng cố định theo pod (không theo node id ngẫu nhiên,
+ * để mỗi lần restart không để lại một consumer group mồ côi trên broker), bắt đầu từ offset mới nhất
+ * (frame realtime cũ không có giá trị). Node gửi, node nhận và kind nằm trong header, nên frame không dành cho node
+ * này bị bỏ qua mà không cần đọc payload.
+ */
+@Slf4j
+public class KafkaClusterTransport implements ClusterTransport {
+
+    static final String KIND_HEADER = "ws-kind";
+    static final String ORIGIN_HEADER = "ws-origin";
+    static final String TARGETS_HEADER = "ws-targets";
+    static final String CHANNEL_HEADER = "ws-channel";
+
+    private final String bootstrapServers;
+    private final String topic;
+    private final String groupId;
+
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private KafkaMessageListenerContainer<String, byte[]> container;
+
+    public KafkaClusterTransport(String bootstrapServers, String topic, String groupId) {
+        this.bootstrapServers = bootstrapServers;
+        this.topic = topic;
+        this.groupId = groupId;
+    }
+
+    @Override
+    public void start(String nodeId, Consumer<ClusterEnvelope> receiver) {
+        Map<String, Object> producerConfig = new HashMap<>();
+        producerConfig.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        producerConfig.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerConfig.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // Realtime frames: low latency over durability
+        producerConfig.put(ProducerConfig.ACKS_CONFIG, "1");
+        producerConfig.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerConfig));
+
+        Map<String, Object> consumerConfig = new HashMap<>();
+        consumerConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        consumerConfig.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerConfig.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumerConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        containerProperties.setMessageListener((MessageListener<String, byte[]>) record -> {
+            ClusterEnvelope envelope = read(nodeId, record);
+            if (envelope != null) {
+                receiver.accept(envelope);
+            }
+        });
+        container = new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(consumerConfig), containerProperties);
+        container.start();
+        log.info("WebSocket cluster fan-out over Kafka topic {} started, node={}, group={}", topic, nodeId, groupId);
+    }
+
+    @Override
+    public void send(ClusterEnvelope envelope) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, envelope.destination(), envelope.payload());
+        Headers headers = record.headers();
+        headers.add(KIND_HEADER, utf8(envelope.kind().name()));
+        headers.add(ORIGIN_HEADER, utf8(envelope.originNodeId()));
+        headers.add(TARGETS_HEADER, utf8(String.join(",", envelope.targetNodeIds())));
+        if (envelope.channel() != null) {
+            headers.add(CHANNEL_HEADER, utf8(envelope.channel()));
+        }
+        kafkaTemplate.send(record).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.warn("Failed to send WebSocket fan-out frame for {}", envelope.destination(), ex);
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+        if (kafkaTemplate != null) {
+            kafkaTemplate.destroy();
+        }
+    }
+
+    private static ClusterEnvelope read(String nodeId, ConsumerRecord<String, byte[]> record) {
+        Headers headers = record.headers();
+        String origin = header(headers, ORIGIN_HEADER);
+        if (origin == null || origin.equals(nodeId)) {
+            return null;
+        }
+        String targets = header(headers, TARGETS_HEADER);
+        Set<String> targetNodeIds = targets == null || targets.isEmpty()
+                ? Set.of()
+                : Set.copyOf(Arrays.asList(targets.split(",")));
+        if (!targetNodeIds.isEmpty() && !targetNodeIds.contains(nodeId)) {
+            return null;
+        }
+        return new ClusterEnvelope(
+                ClusterEnvelope.Kind.valueOf(header(headers, KIND_HEADER)),
+                origin,
+                targetNodeIds,
+                header(headers, CHANNEL_HEADER),
+                record.key(),
+                record.value());
+    }
+
+    private static String header(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
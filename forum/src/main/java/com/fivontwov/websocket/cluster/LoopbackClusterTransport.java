@@ -0,0 +1,49 @@
+package com.fivontwov.websocket.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Transport in-JVM: mọi node gắn vào cùng một {@link Hub} nhận envelope đồng bộ, và chỉ node nằm
+ * trong targetNodeIds mới được gọi.
+ *
+ * Mặc định mỗi forum instance có Hub riêng (chạy một node, không cần Kafka); test gắn nhiều
+ * ClusterFanout vào chung một Hub để giả lập cluster.
+ */
+public class LoopbackClusterTransport implements ClusterTransport {
+
+    private final Hub hub;
+
+    private volatile String nodeId;
+
+    public LoopbackClusterTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void start(String nodeId, Consumer<ClusterEnvelope> receiver) {
+        this.nodeId = nodeId;
+        hub.nodes.put(nodeId, receiver);
+    }
+
+    @Override
+    public void send(ClusterEnvelope envelope) {
+        hub.nodes.forEach((id, receiver) -> {
+            if (!id.equals(envelope.originNodeId()) && envelope.isAddressedTo(id)) {
+                receiver.accept(envelope);
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        if (nodeId != null) {
+            hub.nodes.remove(nodeId);
+        }
+    }
+
+    public static final class Hub {
+        private final Map<String, Consumer<ClusterEnvelope>> nodes = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,44 @@
+package com.fivontwov.websocket.dto;
+
+import com.fivontwov.dto.UserDTO;
+import com.fivontwov.model.Comment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Comment mới, push tới /topic/forum/{topicId}/comments và trả về bởi
+ * GET /topics/{topicId}/comments/since (catch-up sau khi reconnect).
+ *
+ * Đã kèm tên tác giả để client hiển thị ngay, không phải gọi lại list endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentDelta {
+    private Long id;
+    private Long topicId;
+    private Long parentCommentId;
+    private String body;
+    private Instant createdAt;
+    private Long authorId;
+    private String authorUsername;
+    private String authorName;
+
+    public static CommentDelta of(Comment comment, UserDTO author) {
+        CommentDelta delta = new CommentDelta();
+        delta.setId(comment.getId());
+        delta.setTopicId(comment.getTopicId());
+        delta.setParentCommentId(comment.getParentCommentId());
+        delta.setBody(comment.getBody());
+        delta.setCreatedAt(comment.getCreatedAt());
+        delta.setAuthorId(comment.getUserId());
+        if (author != null) {
+            delta.setAuthorUsername(author.getUsername());
+            delta.setAuthorName(author.getName());
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,22 @@
+package com.fivontwov.websocket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Số người xem theo topic trên một node, trao đổi giữa các forum node (không gửi cho client).
+ *
+ * full = true: toàn bộ topic đang có người xem trên node đó (thay thế dữ liệu cũ);
+ * full = false: chỉ các topic vừa thay đổi, 0 = không còn ai xem.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceUpdate {
+    private String nodeId;
+    private boolean full;
+    private Map<Long, Integer> viewers;
+}
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
  * Event được gửi qua WebSocket khi user đang gõ / dừng gõ
  *
  * Client gửi lên: { "userId": 1, "userName": "Alice", "action": "TYPING" }
- * Server broadcast: thêm topicId + timestamp rồi push xuống tất cả subscriber
+ * Server không broadcast từng event: TypingAggregator gộp lại thành TypingSnapshot
+ * Client nên gửi lại TYPING vài giây một lần khi vẫn đang gõ (forum.ws.typing.ttl-ms)
  */
 @Data
 @Builder
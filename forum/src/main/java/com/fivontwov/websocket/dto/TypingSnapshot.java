@@ -0,0 +1,36 @@
+package com.fivontwov.websocket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Frame "ai đang gõ" được broadcast tới /topic/forum/{topicId}/typing
+ *
+ * Là trạng thái đầy đủ tại thời điểm gửi (không phải delta): client chỉ cần thay danh sách đang hiển thị.
+ * typists rỗng = không còn ai gõ.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingSnapshot {
+
+    private Long topicId;
+
+    private List<Typist> typists;
+
+    private LocalDateTime timestamp;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Typist {
+        private Long userId;
+        private String userName;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fivontwov.websocket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Số người đang xem topic, push tới /topic/forum/{topicId}/presence
+ *
+ * viewers = số STOMP session (trên mọi node) đang subscribe ít nhất một destination của topic,
+ * nên một user mở 2 tab được tính 2 lần.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewerCount {
+    private Long topicId;
+    private int viewers;
+}
@@ -1,13 +1,16 @@
 CREATE TABLE IF NOT EXISTS topics (
-  id BIGSERIAL PRIMARY KEY,
+  id BIGINT PRIMARY KEY, -- assigned by the app (SnowflakeIdGenerator)
   user_id BIGINT NOT NULL,
   title VARCHAR(255),
   body TEXT,
-  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  upvotes BIGINT NOT NULL DEFAULT 0,
+  downvotes BIGINT NOT NULL DEFAULT 0,
+  score BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-  id BIGSERIAL PRIMARY KEY,
+  id BIGINT PRIMARY KEY, -- assigned by the app (SnowflakeIdGenerator)
   topic_id BIGINT REFERENCES topics(id) ON DELETE CASCADE,
   parent_comment_id BIGINT REFERENCES comments(id) ON DELETE CASCADE,
   user_id BIGINT NOT NULL,
@@ -16,14 +19,57 @@ CREATE TABLE IF NOT EXISTS comments (
 );
 
 CREATE TABLE IF NOT EXISTS topic_votes (
-  id BIGSERIAL PRIMARY KEY,
+  id BIGINT PRIMARY KEY, -- assigned by the app (SnowflakeIdGenerator)
   topic_id BIGINT REFERENCES topics(id) ON DELETE CASCADE,
   user_id BIGINT NOT NULL,
   value INT CHECK (value IN (-1,1)),
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  voted_at TIMESTAMP, -- last cast/flip, see VoteScoreBuffer.reconcile
   UNIQUE(user_id, topic_id)
 );
 
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGSERIAL PRIMARY KEY,
+  topic VARCHAR(255) NOT NULL,
+  event_key VARCHAR(255),
+  payload TEXT NOT NULL,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  sent_at TIMESTAMP,
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP,
+  dead_at TIMESTAMP -- dead letter, see OutboxRelay
+);
+
 CREATE INDEX IF NOT EXISTS idx_topics_user_id ON topics(user_id);
 CREATE INDEX IF NOT EXISTS idx_comments_topic_id ON comments(topic_id);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_sent_at_id ON outbox_events(sent_at, id);
+
+-- Keyset pagination on (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_topics_created_at_id ON topics(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_topic_created_at_id ON comments(topic_id, created_at, id);
 CREATE INDEX IF NOT EXISTS idx_topic_votes_topic_id ON topic_votes(topic_id);
+CREATE INDEX IF NOT EXISTS idx_topic_votes_voted_at ON topic_votes(voted_at);
+
+-- Comment tree (recursive descent + per-node reply counts)
+CREATE INDEX IF NOT EXISTS idx_comments_parent_comment_id ON comments(parent_comment_id);
+
+-- Live comments: catch-up by last seen id
+CREATE INDEX IF NOT EXISTS idx_comments_topic_id_id ON comments(topic_id, id);
+
+-- Full-text search (also applied at startup by SearchSchemaInitializer)
+ALTER TABLE topics ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+                       setweight(to_tsvector('simple', coalesce(body, '')), 'B')) STORED;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (to_tsvector('simple', coalesce(body, ''))) STORED;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_topics_search_vector ON topics USING GIN (search_vector);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_search_vector ON comments USING GIN (search_vector);
+
+-- Snowflake node id leases (also created at startup by SnowflakeNodeLease)
+CREATE TABLE IF NOT EXISTS snowflake_node_leases (
+  node_id INT PRIMARY KEY, -- 0..31
+  owner VARCHAR(255), -- host/pid of the instance holding it
+  last_millis BIGINT NOT NULL DEFAULT 0, -- last millisecond issued, the next holder starts after it
+  expires_at TIMESTAMPTZ NOT NULL DEFAULT '-infinity'
+);
@@ -0,0 +1,119 @@
+package com.fivontwov.kafka;
+
+import com.fivontwov.event.CommentCreatedEvent;
+import com.fivontwov.event.proto.CommentCreated;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * So sánh protobuf với đường JSON cũ (JsonSerializer/JsonDeserializer) cho forum.comment.created:
+ * số byte mỗi event và thời gian encode/decode trung bình. Phần đo thời gian chỉ là micro-benchmark thô,
+ * gắn tag "benchmark" nên không chạy trong mvn test mặc định (xem excludedGroups trong pom.xml).
+ */
+class CommentEventEncodingBenchmarkTest {
+
+    private static final String TOPIC = "forum.comment.created";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private static CommentCreatedEvent sampleEvent() {
+        CommentCreatedEvent event = new CommentCreatedEvent();
+        event.setCommentId(123456L);
+        event.setTopicId(7890L);
+        event.setCommenterId(42L);
+        event.setCommenterEmail("commenter@example.com");
+        event.setCommenterName("Nguyen Van A");
+        event.setTopicCreatorId(17L);
+        event.setTopicCreatorEmail("creator@example.com");
+        event.setParentCommentId(123400L);
+        event.setParentCommentCreatorId(99L);
+        event.setParentCommentCreatorEmail("parent@example.com");
+        event.setCommentBody("Mình nghĩ cách tiếp cận này ổn, nhưng nên thêm index cho cột created_at "
+                + "để phân trang không bị full scan khi bảng comments lớn dần.");
+        event.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        event.setTopicTitle("Tối ưu truy vấn phân trang trên PostgreSQL");
+        return event;
+    }
+
+    @Test
+    void protobufRoundTripPreservesEvent() throws Exception {
+        CommentCreatedEvent event = sampleEvent();
+        byte[] bytes = new CommentCreatedEventSerializer().serialize(TOPIC, new RecordHeaders(), event);
+
+        assertEquals(event, CommentEventCodec.fromProto(CommentCreated.parseFrom(bytes)));
+    }
+
+    @Test
+    void protobufIsSmallerThanJson() {
+        CommentCreatedEvent event = sampleEvent();
+        JsonSerializer<CommentCreatedEvent> jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.setAddTypeInfo(false);
+        JsonDeserializer<CommentCreatedEvent> jsonDeserializer =
+                new JsonDeserializer<>(CommentCreatedEvent.class, false);
+
+        byte[] protoBytes = new CommentCreatedEventSerializer().serialize(TOPIC, event);
+        byte[] jsonBytes = jsonSerializer.serialize(TOPIC, event);
+
+        assertEquals(event, jsonDeserializer.deserialize(TOPIC, jsonBytes));
+        assertTrue(protoBytes.length < jsonBytes.length,
+                "protobuf (" + protoBytes.length + " B) should be smaller than JSON (" + jsonBytes.length + " B)");
+
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void reportsEncodeDecodeTimings() throws Exception {
+        CommentCreatedEvent event = sampleEvent();
+
+        CommentCreatedEventSerializer protoSerializer = new CommentCreatedEventSerializer();
+        JsonSerializer<CommentCreatedEvent> jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.setAddTypeInfo(false);
+        JsonDeserializer<CommentCreatedEvent> jsonDeserializer =
+                new JsonDeserializer<>(CommentCreatedEvent.class, false);
+
+        byte[] protoBytes = protoSerializer.serialize(TOPIC, event);
+        byte[] jsonBytes = jsonSerializer.serialize(TOPIC, event);
+
+        long protoEncodeNs = time(() -> protoSerializer.serialize(TOPIC, event));
+        long jsonEncodeNs = time(() -> jsonSerializer.serialize(TOPIC, event));
+        long protoDecodeNs = time(() -> CommentEventCodec.fromProto(CommentCreated.parseFrom(protoBytes)));
+        long jsonDecodeNs = time(() -> jsonDeserializer.deserialize(TOPIC, jsonBytes));
+
+        System.out.printf("bytes/event: protobuf=%d json=%d%n", protoBytes.length, jsonBytes.length);
+        System.out.printf("encode ns/op: protobuf=%d json=%d%n", protoEncodeNs, jsonEncodeNs);
+        System.out.printf("decode ns/op: protobuf=%d json=%d%n", protoDecodeNs, jsonDecodeNs);
+
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    private static long time(Op op) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = op.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(sink != null);
+        return elapsed / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Op {
+        Object run() throws Exception;
+    }
+}
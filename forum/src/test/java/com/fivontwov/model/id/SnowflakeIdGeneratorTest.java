@@ -0,0 +1,89 @@
+package com.fivontwov.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void idsIncreaseWithinTheSameMillisecondAndAcrossTheSequenceLimit() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, () -> NOW);
+
+        long previous = generator.nextId();
+        // Far more than the 128 ids one millisecond can hold: the sequence carries into the timestamp
+        for (int i = 0; i < 1000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "ids must be strictly increasing");
+            assertEquals(3, nodeOf(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void clockGoingBackwardsNeverRepeatsAnId() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        assertTrue(generator.nextId() > before);
+    }
+
+    @Test
+    void resumesPastTheLastIssuedMillisecondEvenWhenItIsAheadOfTheClock() {
+        SnowflakeIdGenerator previous = new SnowflakeIdGenerator(2, () -> NOW);
+        long last = 0;
+        // Borrow about 8 ms ahead of the clock
+        for (int i = 0; i < 1000; i++) {
+            last = previous.nextId();
+        }
+        assertTrue(previous.lastIssuedMillis() > NOW);
+
+        SnowflakeIdGenerator restarted = new SnowflakeIdGenerator(2, previous.lastIssuedMillis(), () -> NOW);
+        long first = restarted.nextId();
+        assertTrue(first > last);
+        assertEquals(previous.lastIssuedMillis() + 1, restarted.lastIssuedMillis());
+    }
+
+    @Test
+    void idsEncodeTheirTimestampAndStaySafeForJavaScript() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID, () -> NOW);
+
+        long id = generator.nextId();
+        assertEquals(Instant.ofEpochMilli(NOW), SnowflakeIdGenerator.timestampOf(id));
+        // Even at the end of the 41-bit time range ids stay below Number.MAX_SAFE_INTEGER
+        long maxId = ~0L >>> (64 - 41 - SnowflakeIdGenerator.NODE_BITS - SnowflakeIdGenerator.SEQUENCE_BITS);
+        assertTrue(maxId <= (1L << 53) - 1);
+    }
+
+    @Test
+    void rewindCoversIdsFromEarlierMillisOnAnyNode() {
+        long id = new SnowflakeIdGenerator(0, () -> NOW).nextId();
+        long earlier = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID, () -> NOW - 4_000).nextId();
+
+        long bound = SnowflakeIdGenerator.rewind(id, Duration.ofSeconds(5));
+        assertTrue(earlier > bound);
+        assertEquals(Instant.ofEpochMilli(NOW - 5_000), SnowflakeIdGenerator.timestampOf(bound));
+        assertEquals(0L, SnowflakeIdGenerator.rewind(id, Duration.ofDays(365 * 100)));
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    private static long nodeOf(long id) {
+        return (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,137 @@
+package com.fivontwov.websocket.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fivontwov.websocket.LocalSubscriptionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Ba node gắn chung một LoopbackClusterTransport.Hub để kiểm tra fan-out giữa các node.
+ */
+class ClusterFanoutTest {
+
+    private static final String DESTINATION = "/topic/forum/1/comments";
+
+    private final LoopbackClusterTransport.Hub hub = new LoopbackClusterTransport.Hub();
+    private final List<Node> nodes = new ArrayList<>();
+
+    private Node a;
+    private Node b;
+    private Node c;
+
+    @BeforeEach
+    void setUp() {
+        a = node();
+        b = node();
+        c = node();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(n -> n.fanout.stop());
+    }
+
+    @Test
+    void framesReachOnlyNodesWithSubscribers() {
+        subscribe(b, DESTINATION);
+        nodes.forEach(n -> n.fanout.announceInterest());
+
+        a.fanout.broadcast(DESTINATION, Map.of("id", 42));
+
+        ArgumentCaptor<Message> relayed = ArgumentCaptor.forClass(Message.class);
+        verify(b.template).send(eq(DESTINATION), relayed.capture());
+        assertArrayEquals("{\"id\":42}".getBytes(StandardCharsets.UTF_8), (byte[]) relayed.getValue().getPayload());
+        assertEquals(MimeTypeUtils.APPLICATION_JSON,
+                SimpMessageHeaderAccessor.wrap(relayed.getValue()).getContentType());
+        verify(c.template, never()).send(anyString(), any(Message.class));
+        assertEquals(1, counter(a, "sent"));
+        assertEquals(0, counter(c, "received") + counter(c, "dropped"));
+    }
+
+    @Test
+    void nothingLeavesTheNodeWithoutRemoteInterest() {
+        nodes.forEach(n -> n.fanout.announceInterest());
+
+        a.fanout.broadcast(DESTINATION, Map.of("id", 42));
+
+        assertEquals(0, counter(a, "sent"));
+    }
+
+    @Test
+    void forwardedEventsGoToTheChannelHandler() {
+        List<Map<?, ?>> received = new ArrayList<>();
+        b.fanout.registerHandler("typing", Map.class, received::add);
+        subscribe(b, DESTINATION);
+        nodes.forEach(n -> n.fanout.announceInterest());
+
+        a.fanout.forward("typing", DESTINATION, Map.of("userId", 7));
+
+        assertEquals(List.of(Map.of("userId", 7)), received);
+    }
+
+    @Test
+    void stoppedNodeIsForgotten() {
+        subscribe(b, DESTINATION);
+        nodes.forEach(n -> n.fanout.announceInterest());
+        b.fanout.stop();
+        nodes.remove(b);
+
+        a.fanout.broadcast(DESTINATION, Map.of("id", 42));
+
+        assertEquals(0, counter(a, "sent"));
+    }
+
+    private Node node() {
+        LocalSubscriptionRegistry subscriptions = new LocalSubscriptionRegistry();
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        ClusterFanout fanout = new ClusterFanout(new LoopbackClusterTransport(hub), subscriptions, template,
+                new ObjectMapper(), meters, 5000);
+        fanout.start();
+        Node node = new Node(fanout, subscriptions, template, meters);
+        nodes.add(node);
+        return node;
+    }
+
+    private static void subscribe(Node node, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("session-" + node.fanout.nodeId());
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        node.subscriptions.onSubscribe(new SessionSubscribeEvent(node, message));
+    }
+
+    private static double counter(Node node, String direction) {
+        return node.meters.counter("forum.ws.cluster.frames", "direction", direction).count();
+    }
+
+    private record Node(ClusterFanout fanout, LocalSubscriptionRegistry subscriptions,
+                        SimpMessagingTemplate template, SimpleMeterRegistry meters) {
+    }
+}
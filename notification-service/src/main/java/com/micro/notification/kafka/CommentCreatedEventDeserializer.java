@@ -0,0 +1,86 @@
+package com.micro.notification.kafka;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.micro.notification.event.CommentCreatedEvent;
+import com.micro.notification.event.proto.CommentCreated;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Giải mã value của forum.comment.created.
+ *
+ * Message mới là protobuf (header content-type = application/x-protobuf, xem comment_event.proto);
+ * message không có header là JSON do forum phiên bản cũ gửi, vẫn được đọc bằng JsonDeserializer
+ * để việc chuyển đổi không làm mất event còn nằm trong topic.
+ */
+public class CommentCreatedEventDeserializer implements Deserializer<CommentCreatedEvent> {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String PROTOBUF_CONTENT_TYPE = "application/x-protobuf";
+
+    private final JsonDeserializer<CommentCreatedEvent> legacyJson =
+            new JsonDeserializer<>(CommentCreatedEvent.class, false).trustedPackages("*");
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        // JSON fallback is fully configured in the field initializer
+    }
+
+    @Override
+    public CommentCreatedEvent deserialize(String topic, byte[] data) {
+        return deserializeProtobuf(data);
+    }
+
+    @Override
+    public CommentCreatedEvent deserialize(String topic, Headers headers, byte[] data) {
+        Header contentType = headers.lastHeader(CONTENT_TYPE_HEADER);
+        if (contentType != null
+                && PROTOBUF_CONTENT_TYPE.equals(new String(contentType.value(), StandardCharsets.UTF_8))) {
+            return deserializeProtobuf(data);
+        }
+        return legacyJson.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        legacyJson.close();
+    }
+
+    private CommentCreatedEvent deserializeProtobuf(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return fromProto(CommentCreated.parseFrom(data));
+        } catch (InvalidProtocolBufferException e) {
+            throw new SerializationException("Cannot decode CommentCreated protobuf", e);
+        }
+    }
+
+    private static CommentCreatedEvent fromProto(CommentCreated proto) {
+        CommentCreatedEvent event = new CommentCreatedEvent();
+        event.setCommentId(proto.getCommentId());
+        event.setTopicId(proto.getTopicId());
+        event.setCommenterId(proto.getCommenterId());
+        event.setCommenterEmail(proto.getCommenterEmail());
+        event.setCommenterName(proto.getCommenterName());
+        event.setTopicCreatorId(proto.hasTopicCreatorId() ? proto.getTopicCreatorId() : null);
+        event.setTopicCreatorEmail(proto.hasTopicCreatorEmail() ? proto.getTopicCreatorEmail() : null);
+        event.setParentCommentId(proto.hasParentCommentId() ? proto.getParentCommentId() : null);
+        event.setParentCommentCreatorId(proto.hasParentCommentCreatorId() ? proto.getParentCommentCreatorId() : null);
+        event.setParentCommentCreatorEmail(proto.hasParentCommentCreatorEmail() ? proto.getParentCommentCreatorEmail() : null);
+        event.setCommentBody(proto.getCommentBody());
+        event.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(proto.getCreatedAtEpochMillis()), ZoneOffset.UTC));
+        event.setTopicTitle(proto.getTopicTitle());
+        return event;
+    }
+}
@@ -0,0 +1,24 @@
+package com.dpp.ddp_study_management.common.config;
+
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Khi bật virtual thread (profile virtual-threads, Java 21), mỗi gRPC call được xử lý trên
+ * một virtual thread riêng thay cho cached thread pool mặc định của grpc-java.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class GrpcVirtualThreadConfig {
+
+    @Bean
+    public GrpcServerConfigurer virtualThreadGrpcServerConfigurer() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("grpc-vt-");
+        executor.setVirtualThreads(true);
+        return serverBuilder -> serverBuilder.executor(executor);
+    }
+}
@@ -0,0 +1,62 @@
+package com.dpp.ddp_study_management.common.config;
+
+import com.dpp.ddp_study_management.service.BlacklistedTokenService;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Chuyển token đã logout từ bảng blacklisted_tokens cũ (trước khi blacklist chuyển sang Redis) vào Redis.
+ *
+ * Chỉ có tác dụng với database giữ dữ liệu qua các lần khởi động (không phải create-drop): token còn hạn được
+ * ghi lại qua BlacklistedTokenService (TTL theo exp của token), token đã hết hạn hoặc không đọc được thì bỏ qua.
+ * Chuyển xong toàn bộ thì bảng bị xóa, nên lần khởi động sau không làm gì; Redis lỗi thì giữ bảng để thử lại.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevokedTokenMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlacklistedTokenService blacklistedTokenService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('blacklisted_tokens') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        List<String> tokens = jdbcTemplate.queryForList(
+                "SELECT token FROM blacklisted_tokens", String.class);
+        int migrated = 0;
+        try {
+            for (String token : tokens) {
+                try {
+                    blacklistedTokenService.addBlacklistedToken(token);
+                    migrated++;
+                } catch (JwtException e) {
+                    // Expired or unreadable: it cannot authenticate anyone any more
+                    log.debug("Skipping revoked token that no longer parses: {}", e.getMessage());
+                }
+            }
+        } catch (DataAccessException e) {
+            // Redis unavailable: keep the table, the next start tries again
+            log.warn("Could not move revoked tokens to Redis ({} of {} done), keeping blacklisted_tokens",
+                    migrated, tokens.size(), e);
+            return;
+        }
+
+        jdbcTemplate.execute("DROP TABLE blacklisted_tokens");
+        log.info("Moved {} of {} revoked tokens from blacklisted_tokens to Redis, table dropped",
+                migrated, tokens.size());
+    }
+}
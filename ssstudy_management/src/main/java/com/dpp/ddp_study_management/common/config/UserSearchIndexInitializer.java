@@ -0,0 +1,91 @@
+package com.dpp.ddp_study_management.common.config;
+
+import com.dpp.ddp_study_management.common.util.SearchText;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Chuẩn bị tìm kiếm user bằng pg_trgm (idempotent).
+ *
+ * - Bật extension pg_trgm và tạo GIN trigram index trên users.search_name / users.search_text,
+ *   để LIKE '%term%' và word_similarity() dùng index thay vì quét toàn bảng
+ * - Điền cột search_* cho các dòng được ghi thẳng bằng SQL (data.sql, import) không qua entity
+ *
+ * Hibernate tạo cột nhưng không biết về operator class gin_trgm_ops, nên index được tạo ở đây,
+ * CONCURRENTLY để không chặn ghi vào users; index hỏng do lần build trước bị ngắt được xóa và build lại.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserSearchIndexInitializer implements ApplicationRunner {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            createIndexIfMissing("idx_users_search_name_trgm", "search_name");
+            createIndexIfMissing("idx_users_search_text_trgm", "search_text");
+        } catch (DataAccessException e) {
+            // Thiếu quyền CREATE EXTENSION: tìm kiếm vẫn đúng, chỉ chậm hơn (seq scan)
+            log.warn("Could not create pg_trgm indexes for user search, falling back to sequential scans", e);
+        }
+
+        int backfilled = backfillSearchColumns();
+        log.info("User search indexes are in place, backfilled {} rows", backfilled);
+    }
+
+    private void createIndexIfMissing(String index, String column) {
+        Boolean valid = jdbcTemplate.query(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)",
+                rs -> rs.next() ? rs.getBoolean(1) : null,
+                index);
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (valid != null) {
+            // Left behind by an interrupted CONCURRENTLY build: unusable, and IF NOT EXISTS would keep it
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+        }
+        // CONCURRENTLY cannot run inside a transaction; JdbcTemplate uses an auto-commit connection here
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index
+                + " ON users USING GIN (" + column + " gin_trgm_ops)");
+    }
+
+    // Keyset on id, so a row that still ends up NULL can never be selected again and stall the loop
+    private int backfillSearchColumns() {
+        int total = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(
+                    "SELECT id, name, username, email, description FROM users "
+                            + "WHERE search_name IS NULL AND id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> {
+                        String name = rs.getString("name");
+                        String username = rs.getString("username");
+                        return new Object[]{
+                                SearchText.forColumn(name, username),
+                                SearchText.forColumn(name, username, rs.getString("email"), rs.getString("description")),
+                                rs.getLong("id")
+                        };
+                    },
+                    lastId, BACKFILL_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate("UPDATE users SET search_name = ?, search_text = ? WHERE id = ?", batch);
+            total += batch.size();
+            lastId = (Long) batch.get(batch.size() - 1)[2];
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.dpp.ddp_study_management.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Chẩn đoán pinning khi chạy trên virtual thread (spring.threads.virtual.enabled=true, Java 21).
+ *
+ * Virtual thread bị "ghim" vào carrier khi block bên trong synchronized (hoặc native frame):
+ * carrier không được trả lại pool nên lợi ích của virtual thread mất đi.
+ * Bean này nghe sự kiện JFR jdk.VirtualThreadPinned ngay trong process, ghi vào timer
+ * study.vthreads.pinned và log vài frame đầu của stack để biết đoạn code nào cần đổi sang ReentrantLock.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Timer pinnedTimer;
+    private final Duration threshold;
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${study.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        this.pinnedTimer = Timer.builder("study.vthreads.pinned")
+                .description("Time virtual threads spent pinned to their carrier")
+                .register(meterRegistry);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream rs = new RecordingStream();
+        rs.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        rs.onEvent(PINNED_EVENT, this::onPinned);
+        rs.startAsync();
+        stream = rs;
+        log.info("Virtual thread pinning monitor started, threshold={}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream rs = stream;
+        stream = null;
+        if (rs != null) {
+            rs.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t<no stack trace>";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(f -> "\tat " + f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                        + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.dpp.ddp_study_management.common.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes across requests: a write request (POST/PUT/PATCH/DELETE) hands the client a short-lived
+ * cookie, and while it is valid that client's read-only transactions go to the primary instead of a
+ * replica that may not have replayed the write yet. The cookie carries its own expiry, so stickiness
+ * works no matter which instance serves the next request.
+ */
+class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "db_primary_until";
+
+    private final Duration window;
+
+    ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        ReplicaRoutingContext.begin(primaryUntil(request, now + window.toMillis()) > now);
+        try {
+            if (isWrite(request.getMethod())) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(now + window.toMillis()));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                response.addCookie(cookie);
+            }
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.end();
+        }
+    }
+
+    /**
+     * Cookie value, clamped to {@code latest}. Every instance writes now + window, so a value much further out
+     * was not issued by us (edited cookie); it is ignored rather than pinning that client to the primary.
+     */
+    private long primaryUntil(HttpServletRequest request, long latest) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                long until;
+                try {
+                    until = Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+                // Allow one more window of clock skew between the instance that wrote it and this one
+                if (until > latest + window.toMillis()) {
+                    return 0;
+                }
+                return Math.min(until, latest);
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method) || "TRACE".equals(method));
+    }
+}
@@ -0,0 +1,79 @@
+package com.dpp.ddp_study_management.common.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas cho study-management.
+ *
+ * study.datasource.replica-urls (danh sách JDBC URL, phân tách bằng dấu phẩy) để trống thì mọi thứ chạy
+ * trên primary như trước. Khi có replica: @Transactional(readOnly = true) được đưa sang replica khỏe nhất
+ * theo vòng tròn, replica trễ hơn replica-max-lag bị loại khỏi vòng cho tới khi bắt kịp, và client vừa ghi
+ * thì đọc từ primary trong read-your-writes-window. Replica dùng chung user/password và cấu hình Hikari
+ * với primary.
+ */
+@Configuration
+@Slf4j
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReplicaHealthChecker replicaHealthChecker(HikariDataSource primaryDataSource,
+                                              @Value("${study.datasource.replica-urls:}") List<String> replicaUrls,
+                                              @Value("${study.datasource.replica-max-lag:1s}") Duration maxLag,
+                                              @Value("${study.datasource.replica-health-interval:2s}") Duration interval) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setPoolName("replica-" + pools.size());
+            config.setReadOnly(true);
+            // Do not fail startup when a replica is down; the health checker keeps it out of rotation
+            config.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(config));
+        }
+        if (!pools.isEmpty()) {
+            log.info("Routing read-only transactions to {} replica(s)", pools.size());
+        }
+        return new ReplicaHealthChecker(primaryDataSource, pools, maxLag, interval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaHealthChecker replicas) {
+        if (replicas.isEmpty()) {
+            return primaryDataSource;
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(
+            @Value("${study.datasource.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+}
@@ -0,0 +1,184 @@
+package com.dpp.ddp_study_management.common.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Probes every replica on a fixed interval and keeps only those that answer and whose replay lag
+ * is within max-lag in the rotation. A replica starts out of rotation until its first successful probe.
+ *
+ * Lag is measured against the primary: a replica that has replayed up to the primary's current WAL position
+ * is caught up, otherwise its lag is the age of the last transaction it replayed. Comparing the replica only
+ * with itself (received vs replayed WAL) would report a replica whose WAL receiver has disconnected as
+ * caught up, however stale it is.
+ */
+@Slf4j
+class ReplicaHealthChecker implements SmartLifecycle, DisposableBean {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    // Lag is 0 once the primary's position has been replayed (an idle primary would otherwise look "late")
+    private static final String LAG_SQL = """
+            SELECT pg_is_in_recovery(),
+                   CASE WHEN pg_last_wal_replay_lsn() >= ?::pg_lsn THEN 0
+                        ELSE EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000
+                   END
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration interval;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    ReplicaHealthChecker(DataSource primary, List<HikariDataSource> replicaPools, Duration maxLag, Duration interval) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream()
+                .map(pool -> new Replica(pool.getPoolName(), pool))
+                .toList();
+        this.maxLag = maxLag;
+        this.interval = interval;
+    }
+
+    boolean isEmpty() {
+        return replicas.isEmpty();
+    }
+
+    Map<String, DataSource> dataSources() {
+        Map<String, DataSource> byKey = new LinkedHashMap<>();
+        replicas.forEach(replica -> byKey.put(replica.key, replica.pool));
+        return byKey;
+    }
+
+    /**
+     * Round-robin over the healthy replicas; null when none is healthy.
+     */
+    String pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.key;
+            }
+        }
+        return null;
+    }
+
+    void probeAll() {
+        String primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(queryTimeoutSeconds());
+            try (ResultSet rs = statement.executeQuery(PRIMARY_LSN_SQL)) {
+                rs.next();
+                primaryLsn = rs.getString(1);
+            }
+        } catch (Exception e) {
+            // Nothing to measure against; keep the current rotation until the primary answers again
+            log.warn("Cannot read the primary WAL position, replica health unchanged: {}", e.getMessage());
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            probe(replica, primaryLsn);
+        }
+    }
+
+    private void probe(Replica replica, String primaryLsn) {
+        boolean healthy;
+        String reason;
+        try (Connection connection = replica.pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+            statement.setQueryTimeout(queryTimeoutSeconds());
+            statement.setString(1, primaryLsn);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                boolean inRecovery = rs.getBoolean(1);
+                long lagMs = rs.getLong(2);
+                // NULL: behind the primary without having replayed any transaction yet
+                boolean lagKnown = !rs.wasNull();
+                healthy = inRecovery && lagKnown && lagMs <= maxLag.toMillis();
+                reason = !inRecovery ? "not in recovery (promoted?)"
+                        : lagKnown ? "lag " + lagMs + " ms" : "behind primary, nothing replayed yet";
+            }
+        } catch (Exception e) {
+            healthy = false;
+            reason = e.getMessage();
+        }
+
+        if (healthy != replica.healthy) {
+            if (healthy) {
+                log.info("Replica {} back in rotation ({})", replica.key, reason);
+            } else {
+                log.warn("Replica {} out of rotation: {}", replica.key, reason);
+            }
+        }
+        replica.healthy = healthy;
+    }
+
+    private int queryTimeoutSeconds() {
+        return (int) Math.max(1, interval.toSeconds());
+    }
+
+    @Override
+    public void start() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::probeAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService running = scheduler;
+        scheduler = null;
+        if (running != null) {
+            running.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+
+        private Replica(String key, HikariDataSource pool) {
+            this.key = key;
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.dpp.ddp_study_management.common.config.datasource;
+
+/**
+ * Per-request routing state. A request is pinned to the primary when the client wrote recently
+ * (ReadYourWritesFilter) or once the request itself has opened a read-write transaction, so later
+ * read-only work in the same request sees its own writes.
+ * Threads outside a request (schedulers, gRPC calls) have no state and are never pinned.
+ */
+final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    static void begin(boolean pinnedToPrimary) {
+        State state = new State();
+        state.pinnedToPrimary = pinnedToPrimary;
+        CURRENT.set(state);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static boolean isPinnedToPrimary() {
+        State state = CURRENT.get();
+        return state != null && state.pinnedToPrimary;
+    }
+
+    static void markWrite() {
+        State state = CURRENT.get();
+        if (state != null) {
+            state.pinnedToPrimary = true;
+        }
+    }
+
+    private static final class State {
+        private boolean pinnedToPrimary;
+    }
+}
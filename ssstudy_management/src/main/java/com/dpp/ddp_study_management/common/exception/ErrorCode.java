@@ -69,7 +69,10 @@ public enum ErrorCode {
 
 
     // --- 500 Internal Server Error ---
-    INTERNAL_ERROR(500000, "Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
+    INTERNAL_ERROR(500000, "Internal server error", HttpStatus.INTERNAL_SERVER_ERROR),
+
+    // --- 503 Service Unavailable ---
+    LOGIN_BUSY(503000, "Too many login attempts right now, please try again", HttpStatus.SERVICE_UNAVAILABLE);
 
     private final int code;
     private final String message;
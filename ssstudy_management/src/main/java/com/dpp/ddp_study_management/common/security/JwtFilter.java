@@ -2,7 +2,6 @@ package com.dpp.ddp_study_management.common.security;
 
 import com.dpp.ddp_study_management.model.UserDetailsImpl;
 import com.dpp.ddp_study_management.service.BlacklistedTokenService;
-import com.dpp.ddp_study_management.service.impl.UserDetailsServiceImpl;
 import com.dpp.ddp_study_management.common.dto.ApiResponse;
 import com.dpp.ddp_study_management.common.exception.ErrorCode;
 import com.dpp.ddp_study_management.common.util.JwtUtil;
@@ -32,7 +31,7 @@ public class JwtFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
     private BlacklistedTokenService blacklistedTokenService;
@@ -43,21 +42,17 @@ public class JwtFilter extends OncePerRequestFilter {
         try {
             String token = jwtUtil.parseToken(request);
 
-            if (token != null) {
-                String username = jwtUtil.extractUsername(token);
-
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                    UserDetailsImpl userDetails = userDetailsService.loadUserByUsername(username);
-
-                    if (jwtUtil.validateToken(token, userDetails) && !blacklistedTokenService.isTokenBlacklisted(token)) {
-
-                        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities()
-                        );
-                        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                    }
+            if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // One signature check per token lifetime; principal comes from the claims, not from the DB
+                VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.verify(token);
+
+                if (!blacklistedTokenService.isTokenHashBlacklisted(verified.tokenHash())) {
+                    UserDetailsImpl userDetails = verified.toUserDetails();
+                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities()
+                    );
+                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
                 }
             }
 
@@ -0,0 +1,81 @@
+package com.dpp.ddp_study_management.common.security;
+
+import com.dpp.ddp_study_management.common.exception.AppException;
+import com.dpp.ddp_study_management.common.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chạy BCrypt (cost 12, ~250ms CPU mỗi lần) trên một pool riêng có giới hạn.
+ *
+ * Số thread cố định (mặc định = số CPU) nên một đợt login dồn dập chỉ chiếm tối đa chừng đó core,
+ * các request khác vẫn có CPU. Hàng đợi có sức chứa cố định: khi đầy, login mới bị từ chối ngay
+ * với LOGIN_BUSY (503) thay vì xếp hàng vô hạn; request đã chờ quá wait-timeout cũng bị trả 503.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration waitTimeout;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   @Value("${study.auth.hashing.threads:0}") int threads,
+                                   @Value("${study.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${study.auth.hashing.wait-timeout:5s}") Duration waitTimeout) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.waitTimeout = waitTimeout;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue full ({} waiting), shedding login", executor.getQueue().size());
+            throw new AppException(ErrorCode.LOGIN_BUSY);
+        }
+
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new AppException(ErrorCode.LOGIN_BUSY);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.LOGIN_BUSY);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password check failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
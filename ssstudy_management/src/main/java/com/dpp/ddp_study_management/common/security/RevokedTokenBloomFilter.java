@@ -0,0 +1,79 @@
+package com.dpp.ddp_study_management.common.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of revoked token hashes ({@link com.dpp.ddp_study_management.common.util.TokenHash}).
+ *
+ * "Not contained" is exact, so the common case (token not revoked) is answered from memory;
+ * "maybe contained" must be confirmed against Redis. Entries cannot be removed: the owner keeps two
+ * generations and drops the older one once everything in it has expired (see BlacklistedTokenServiceImpl).
+ * Lock-free: bits are set with CAS, readers never block.
+ */
+public class RevokedTokenBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions revocations expected per generation
+     * @param falsePositiveRate  target rate of "maybe" answers for tokens that were never revoked
+     */
+    public RevokedTokenBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    public void add(String tokenHash) {
+        long h1 = fnv1a(tokenHash);
+        long h2 = mix(tokenHash.hashCode()) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String tokenHash) {
+        long h1 = fnv1a(tokenHash);
+        long h2 = mix(tokenHash.hashCode()) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long hash) {
+        return (int) Long.remainderUnsigned(hash, bitCount);
+    }
+
+    // The input is already a SHA-256 digest, so cheap hashes spread it well enough
+    private static long fnv1a(String s) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return x ^ (x >>> 33);
+    }
+}
@@ -0,0 +1,97 @@
+package com.dpp.ddp_study_management.common.security;
+
+import com.dpp.ddp_study_management.common.util.JwtUtil;
+import com.dpp.ddp_study_management.common.util.TokenHash;
+import com.dpp.ddp_study_management.model.UserDetailsImpl;
+import com.dpp.ddp_study_management.service.impl.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Token đã verify được giữ trong bộ nhớ tới khi hết hạn (key = {@link TokenHash}, không lưu token gốc).
+ *
+ * Lần đầu: verify chữ ký + exp đúng một lần, principal dựng từ sub + claim scp (không query DB).
+ * Các request sau với cùng token: chỉ tính hash và tra cache.
+ * Token cũ không có scp thì mới load user từ DB như trước.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              UserDetailsServiceImpl userDetailsService,
+                              @Value("${study.jwt.verified-cache-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    /**
+     * Principal for a bearer token. Throws the JwtException of the parser when the token is invalid or expired;
+     * invalid tokens are never cached.
+     */
+    public VerifiedToken verify(String token) {
+        String key = TokenHash.of(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        Claims claims = jwtUtil.verify(token);
+        String username = claims.getSubject();
+        List<GrantedAuthority> authorities = jwtUtil.extractAuthorities(claims);
+        if (authorities == null) {
+            UserDetailsImpl userDetails = userDetailsService.loadUserByUsername(username);
+            authorities = List.copyOf(userDetails.getAuthorities());
+        }
+
+        VerifiedToken verified = new VerifiedToken(key, username, authorities, claims.getExpiration().toInstant());
+        cache.put(key, verified);
+        return verified;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(TokenHash.of(token));
+    }
+
+    public record VerifiedToken(String tokenHash, String username, List<GrantedAuthority> authorities,
+                                Instant expiresAt) {
+
+        public UserDetailsImpl toUserDetails() {
+            return new UserDetailsImpl(username, null, authorities);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long millis = token.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, millis) * 1_000_000;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,22 +1,25 @@
 package com.dpp.ddp_study_management.common.util;
 
-import com.dpp.ddp_study_management.model.UserDetailsImpl;
-import com.dpp.ddp_study_management.service.impl.UserDetailsServiceImpl;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,9 +29,6 @@ public class JwtUtil {
     private String SECRET_KEY = "";
     private static final long EXPIRATION_TIME = 3_600_000; // 1 hour
 
-    @Autowired
-    private UserDetailsServiceImpl userDetailsService;
-
     public JwtUtil() {
 //        try {
 //            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
@@ -41,25 +41,33 @@ public class JwtUtil {
 //        }
     }
 
+    // Decoded once; the parser is immutable and thread-safe
+    private SecretKey secretKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void initKey() {
+        secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+    }
+
     private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return secretKey;
     }
 
-    public String generateToken(String username) {
+    // Scope from authorities the caller already loaded (login), no extra user query
+    public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
         return Jwts.builder()
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .claim("scp", buildScope(username))
+                .claim("scp", buildScope(authorities))
                 .signWith(getSecretKey())
                 .compact();
     }
 
-    public boolean validateToken(String token, UserDetailsImpl userDetails) {
-        String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
     public String parseToken(HttpServletRequest request) {
         String token = request.getHeader("Authorization");
         if (token != null && token.startsWith("Bearer ")) {
@@ -72,25 +80,39 @@ public class JwtUtil {
         return extractAllClaims(token).getExpiration();
     }
 
-    public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+    /**
+     * Verify signature and expiry once and return the claims.
+     * Throws ExpiredJwtException / MalformedJwtException / other JwtException when the token is not valid.
+     */
+    public Claims verify(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Authorities stored in the "scp" claim by {@link #generateToken(String, Collection)}, e.g. "[ROLE_ADMIN, ROLE_MENTOR]".
+     * Returns null when the claim is missing.
+     */
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        String scope = claims.get("scp", String.class);
+        if (scope == null) {
+            return null;
+        }
+        String inner = scope.replace("[", "").replace("]", "");
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String authority : inner.split(",")) {
+            if (!authority.isBlank()) {
+                authorities.add(new SimpleGrantedAuthority(authority.trim()));
+            }
+        }
+        return authorities;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    private Claims extractAllClaims(String token) {
+        return verify(token);
     }
 
-    private String buildScope(String username) {
-        UserDetailsImpl userDetails = userDetailsService.loadUserByUsername(username);
-        return userDetails.getAuthorities().stream()
+    private String buildScope(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet())
                 .toString();
@@ -0,0 +1,59 @@
+package com.dpp.ddp_study_management.common.util;
+
+import com.dpp.ddp_study_management.common.dto.PageResponse;
+import com.dpp.ddp_study_management.common.dto.PaginationInfo;
+import com.dpp.ddp_study_management.common.dto.SearchRequest;
+import com.dpp.ddp_study_management.common.exception.AppException;
+import com.dpp.ddp_study_management.common.exception.ErrorCode;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SearchRequest -> Pageable and Page -> PageResponse for searches whose sort field is mapped explicitly
+ * (API field name -> entity property path), so only whitelisted properties reach ORDER BY.
+ */
+public final class Pagination {
+
+    private Pagination() {
+    }
+
+    public static Pageable toPageable(SearchRequest<?> request, Map<String, String> sortProperties) {
+        String sortBy = StringUtils.hasText(request.getName()) ? request.getName() : "id";
+        String property = sortProperties.get(sortBy);
+        if (property == null) {
+            throw new AppException(ErrorCode.SORT_FIELD_INVALID);
+        }
+        // fromString throws IllegalArgumentException, which would surface as a 500
+        Sort.Direction direction = StringUtils.hasText(request.getSort())
+                ? Sort.Direction.fromOptionalString(request.getSort())
+                        .orElseThrow(() -> new AppException(ErrorCode.SORT_INVALID))
+                : Sort.Direction.ASC;
+
+        // Thêm id làm tiêu chí phụ để thứ tự ổn định giữa các trang khi cột sort có giá trị trùng
+        Sort sort = Sort.by(direction, property);
+        if (!"id".equals(property)) {
+            sort = sort.and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+        return PageRequest.of(request.getPage(), request.getSize(), sort);
+    }
+
+    public static <T> PageResponse<List<T>> toPageResponse(Page<T> page) {
+        PaginationInfo paginationInfo = new PaginationInfo();
+        paginationInfo.setPage(page.getNumber());
+        paginationInfo.setLimit(page.getSize());
+        paginationInfo.setTotal((int) page.getTotalElements());
+        paginationInfo.setTotalPages(page.getTotalPages());
+
+        PageResponse<List<T>> pageResponse = new PageResponse<>();
+        pageResponse.setPagination(paginationInfo);
+        pageResponse.setContent(page.getContent());
+
+        return pageResponse;
+    }
+}
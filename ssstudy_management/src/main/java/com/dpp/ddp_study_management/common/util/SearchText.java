@@ -0,0 +1,46 @@
+package com.dpp.ddp_study_management.common.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized form used by user search: lower case, Vietnamese diacritics removed, whitespace collapsed.
+ * "Nguyễn Văn Đức" -> "nguyen van duc". Applied both to the stored search columns and to the query term,
+ * so LIKE on those columns is accent- and case-insensitive and can use the pg_trgm index.
+ */
+public final class SearchText {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SearchText() {
+    }
+
+    public static String normalize(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                joined.append(part).append(' ');
+            }
+        }
+        if (joined.isEmpty()) {
+            return null;
+        }
+
+        // NFD tách dấu thành ký tự kết hợp; đ/Đ là chữ cái riêng nên phải thay tay
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(joined, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Value stored in the search columns: like {@link #normalize} but '' instead of null, so that NULL
+     * only ever means "not computed yet" (what UserSearchIndexInitializer backfills).
+     */
+    public static String forColumn(String... parts) {
+        String normalized = normalize(parts);
+        return normalized != null ? normalized : "";
+    }
+}
@@ -0,0 +1,25 @@
+package com.dpp.ddp_study_management.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Stable id of a JWT for caches and the revocation list: Base64(SHA-256(token)).
+ * Tokens carry no jti, and the raw token should not be stored anywhere.
+ */
+public final class TokenHash {
+
+    private TokenHash() {
+    }
+
+    public static String of(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,12 +3,16 @@ package com.dpp.ddp_study_management.controller;
 import com.dpp.ddp_study_management.proto.UserRequest;
 import com.dpp.ddp_study_management.proto.UserResponse;
 import com.dpp.ddp_study_management.proto.UserServiceGrpc;
+import com.dpp.ddp_study_management.proto.UsersByIdsRequest;
+import com.dpp.ddp_study_management.proto.UsersResponse;
 import com.dpp.ddp_study_management.service.UserService;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import reactor.core.publisher.Mono;
 
+import java.util.LinkedHashSet;
+
 @GrpcService
 public class UserGrpcController extends UserServiceGrpc.UserServiceImplBase {
 
@@ -38,6 +42,23 @@ public class UserGrpcController extends UserServiceGrpc.UserServiceImplBase {
 
     }
 
+    @Override
+    public void getUsersByIds(
+            UsersByIdsRequest request,
+            StreamObserver<UsersResponse> responseObserver) {
+
+        // Unknown ids are simply absent from the response
+        userService.getUsersByIds(new LinkedHashSet<>(request.getIdsList()))
+                .map(users -> UsersResponse.newBuilder()
+                        .addAllUsers(users.stream().map(this::mapToGrpc).toList())
+                        .build())
+                .subscribe(
+                        responseObserver::onNext,
+                        responseObserver::onError,
+                        responseObserver::onCompleted
+                );
+    }
+
     private com.dpp.ddp_study_management.proto.UserResponse mapToGrpc(
             com.dpp.ddp_study_management.dto.response.user.UserResponse user) {
 
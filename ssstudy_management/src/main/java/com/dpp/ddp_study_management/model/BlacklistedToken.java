@@ -1,34 +0,0 @@
-package com.dpp.ddp_study_management.model;
-
-import jakarta.persistence.*;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-
-import java.time.LocalDateTime;
-
-@Entity
-@Table(name = "blacklisted_tokens")
-@Getter
-@Setter
-@NoArgsConstructor
-public class BlacklistedToken {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(unique = true, nullable = false, columnDefinition = "TEXT")
-    private String token;
-
-    @Column(name = "blacklisted_at", nullable = false)
-    private LocalDateTime blacklistedAt;
-
-    @Column(name = "expires_at", nullable = false)
-    private LocalDateTime expiresAt;
-
-    public BlacklistedToken(String token, LocalDateTime expiresAt) {
-        this.token = token;
-        this.blacklistedAt = LocalDateTime.now();
-        this.expiresAt = expiresAt;
-    }
-}
\ No newline at end of file
@@ -9,7 +9,10 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "mentor_mentee_registrations")
+@Table(name = "mentor_mentee_registrations", indexes = {
+        @Index(name = "idx_mentor_mentee_registrations_mentee_id", columnList = "mentee_id"),
+        @Index(name = "idx_mentor_mentee_registrations_mentor_id", columnList = "mentor_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
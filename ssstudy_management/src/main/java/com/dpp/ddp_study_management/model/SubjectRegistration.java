@@ -9,7 +9,10 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "subject_registrations")
+@Table(name = "subject_registrations", indexes = {
+        @Index(name = "idx_subject_registrations_mentee_id", columnList = "mentee_id"),
+        @Index(name = "idx_subject_registrations_subject_id", columnList = "subject_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import com.dpp.ddp_study_management.common.util.SearchText;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -49,6 +50,16 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Dạng chuẩn hoá (không dấu, chữ thường) dùng cho tìm kiếm, có GIN trigram index.
+     * search_name: name + username (ô chọn mentor); search_text: thêm email và description (trang admin).
+     */
+    @Column(name = "search_name", columnDefinition = "text")
+    private String searchName;
+
+    @Column(name = "search_text", columnDefinition = "text")
+    private String searchText;
+
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.DETACH, CascadeType.MERGE,
             CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinTable(
@@ -58,6 +69,13 @@ public class User {
     )
     private Set<Role> roles;
 
+    @PrePersist
+    @PreUpdate
+    void updateSearchColumns() {
+        searchName = SearchText.forColumn(name, username);
+        searchText = SearchText.forColumn(name, username, email, description);
+    }
+
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return roles.stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().name()))
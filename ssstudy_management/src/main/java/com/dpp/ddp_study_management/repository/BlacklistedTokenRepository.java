@@ -1,17 +0,0 @@
-package com.dpp.ddp_study_management.repository;
-
-import com.dpp.ddp_study_management.model.BlacklistedToken;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
-
-import java.time.LocalDateTime;
-
-public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedToken, Long> {
-    boolean existsByToken(String token);
-
-    @Modifying
-    @Query("DELETE FROM BlacklistedToken b WHERE b.expiresAt < :now")
-    void deleteExpiredTokens(@Param("now") LocalDateTime now);
-}
\ No newline at end of file
@@ -4,11 +4,14 @@ import com.dpp.ddp_study_management.model.ERole;
 import com.dpp.ddp_study_management.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -25,57 +28,73 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByIdAndRoles_Name(Long id, ERole eRole);
 
-    @Query(value = "SELECT DISTINCT u " +
-            "FROM User u " +
-            "JOIN u.roles r " +
-            "WHERE r.name IN ('MENTOR', 'MENTEE') " +
-            "AND (:searchTerm IS NULL OR LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-            "OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-            "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-            "OR LOWER(u.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
-            countQuery = "SELECT COUNT(DISTINCT u.id) " +
-                    "FROM User u " +
-                    "JOIN u.roles r " +
-                    "WHERE r.name IN ('MENTOR', 'MENTEE') " +
-                    "AND (:searchTerm IS NULL OR LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-                    "OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-                    "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-                    "OR LOWER(u.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))"
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Tìm kiếm trên cột chuẩn hoá search_text (GIN trigram index), nên :searchTerm phải đã qua
+     * {@link com.dpp.ddp_study_management.common.util.SearchText#normalize}. Khi có từ khoá,
+     * kết quả xếp theo độ giống (word_similarity) trước, rồi mới tới sort của Pageable.
+     */
+    @Query(value = """
+                SELECT u
+                FROM User u
+                WHERE u.id IN (
+                    SELECT ur.id
+                    FROM User ur
+                    JOIN ur.roles r
+                    WHERE r.name IN ('MENTOR', 'MENTEE')
+                )
+                AND (:searchTerm IS NULL OR u.searchText LIKE CONCAT('%', :searchTerm, '%'))
+                ORDER BY function('word_similarity', :searchTerm, u.searchText) DESC NULLS LAST
+            """,
+            countQuery = """
+                SELECT COUNT(u)
+                FROM User u
+                WHERE u.id IN (
+                    SELECT ur.id
+                    FROM User ur
+                    JOIN ur.roles r
+                    WHERE r.name IN ('MENTOR', 'MENTEE')
+                )
+                AND (:searchTerm IS NULL OR u.searchText LIKE CONCAT('%', :searchTerm, '%'))
+            """
     )
     Page<User> findMentorsOrMenteesWithSearch(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     @Query(
             value = """
-                SELECT DISTINCT u
+                SELECT u
                 FROM User u
-                JOIN u.roles r
-                WHERE r.name = 'MENTOR'
+                WHERE u.id IN (
+                    SELECT ur.id
+                    FROM User ur
+                    JOIN ur.roles r
+                    WHERE r.name = 'MENTOR'
+                )
                 AND u.id NOT IN (
                     SELECT msa.mentor.id
                     FROM MentorSubjectAssignment msa
                     WHERE msa.subject.id = :subjectId
                 )
-                AND (
-                    :searchTerm IS NULL
-                    OR LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                )
+                AND (:searchTerm IS NULL OR u.searchName LIKE CONCAT('%', :searchTerm, '%'))
+                ORDER BY function('word_similarity', :searchTerm, u.searchName) DESC NULLS LAST
             """,
             countQuery = """
-                SELECT COUNT(DISTINCT u.id)
+                SELECT COUNT(u)
                 FROM User u
-                JOIN u.roles r
-                WHERE r.name = 'MENTOR'
+                WHERE u.id IN (
+                    SELECT ur.id
+                    FROM User ur
+                    JOIN ur.roles r
+                    WHERE r.name = 'MENTOR'
+                )
                 AND u.id NOT IN (
                     SELECT msa.mentor.id
                     FROM MentorSubjectAssignment msa
                     WHERE msa.subject.id = :subjectId
                 )
-                AND (
-                    :searchTerm IS NULL
-                    OR LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                )
+                AND (:searchTerm IS NULL OR u.searchName LIKE CONCAT('%', :searchTerm, '%'))
             """
     )
     Page<User> findAvailableMentorsForSubjectWithSearch(@Param("subjectId") Long subjectId,
@@ -84,36 +103,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query(
             value = """
-                SELECT DISTINCT u
+                SELECT u
                 FROM User u
-                JOIN u.roles r
-                WHERE r.name = 'MENTOR'
+                WHERE u.id IN (
+                    SELECT ur.id
+                    FROM User ur
+                    JOIN ur.roles r
+                    WHERE r.name = 'MENTOR'
+                )
                 AND u.id NOT IN (
                     SELECT mmr.mentor.id
                     FROM MentorMenteeRegistration mmr
                     WHERE mmr.mentee.id = :menteeId
                 )
-                AND (
-                    :searchTerm IS NULL
-                    OR LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                )
+                AND (:searchTerm IS NULL OR u.searchName LIKE CONCAT('%', :searchTerm, '%'))
+                ORDER BY function('word_similarity', :searchTerm, u.searchName) DESC NULLS LAST
             """,
             countQuery = """
-                SELECT COUNT(DISTINCT u.id)
+                SELECT COUNT(u)
                 FROM User u
-                JOIN u.roles r
-                WHERE r.name = 'MENTOR'
+                WHERE u.id IN (
+                    SELECT ur.id
+                    FROM User ur
+                    JOIN ur.roles r
+                    WHERE r.name = 'MENTOR'
+                )
                 AND u.id NOT IN (
                     SELECT mmr.mentor.id
                     FROM MentorMenteeRegistration mmr
                     WHERE mmr.mentee.id = :menteeId
                 )
-                AND (
-                    :searchTerm IS NULL
-                    OR LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                    OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))
-                )
+                AND (:searchTerm IS NULL OR u.searchName LIKE CONCAT('%', :searchTerm, '%'))
             """
     )
     Page<User> findAvailableMentorsForMenteeWithSearch(@Param("menteeId") Long menteeId,
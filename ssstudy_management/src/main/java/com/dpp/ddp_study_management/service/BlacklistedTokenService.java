@@ -3,4 +3,7 @@ package com.dpp.ddp_study_management.service;
 public interface BlacklistedTokenService {
     void addBlacklistedToken(String token);
     boolean isTokenBlacklisted(String token);
-}
\ No newline at end of file
+
+    // Same check for a token already hashed with TokenHash (JwtFilter has the hash at hand)
+    boolean isTokenHashBlacklisted(String tokenHash);
+}
@@ -10,6 +10,7 @@ import com.dpp.ddp_study_management.dto.response.user.UserResponse;
 import com.dpp.ddp_study_management.model.User;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserService {
@@ -33,4 +34,6 @@ public interface UserService {
     PageResponse<List<MentorResponse>> findAvailableMentorsForSubjectWithSearch(Long subjectId,
                                                                                 SearchRequest<User> request);
     Mono<UserResponse> getUserById(Long id);
+
+    Mono<List<UserResponse>> getUsersByIds(Collection<Long> ids);
 }
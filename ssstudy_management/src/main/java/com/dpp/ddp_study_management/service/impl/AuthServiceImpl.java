@@ -1,17 +1,15 @@
 package com.dpp.ddp_study_management.service.impl;
 
+import com.dpp.ddp_study_management.common.security.PasswordHashingExecutor;
 import com.dpp.ddp_study_management.common.util.JwtUtil;
 import com.dpp.ddp_study_management.dto.request.user.LoginRequest;
 import com.dpp.ddp_study_management.dto.response.user.TokenResponse;
+import com.dpp.ddp_study_management.model.User;
 import com.dpp.ddp_study_management.service.AuthService;
 import com.dpp.ddp_study_management.service.BlacklistedTokenService;
 import com.dpp.ddp_study_management.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -22,42 +20,29 @@ public class AuthServiceImpl implements AuthService {
 
     private final BlacklistedTokenService blacklistedTokenService;
 
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     private final JwtUtil jwtUtil;
 
+    /**
+     * One user load (roles are fetched with it), one BCrypt check on the bounded hashing pool,
+     * and the token scope comes from the roles already loaded.
+     */
     @Override
     public TokenResponse login(LoginRequest loginRequest) {
-        var user = userService.findByUsername(loginRequest.getUsername());
-
-        // diagnostic: check raw password vs stored hash
-        BCryptPasswordEncoder enc = new BCryptPasswordEncoder(12);
-        boolean matches = enc.matches(loginRequest.getPassword(), user.getPassword());
-        System.out.println("[DEBUG] BCrypt.matches = " + matches + " for user=" + loginRequest.getUsername());
-
-        try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsername(),
-                    loginRequest.getPassword()
-            ));
-        } catch (AuthenticationException ex) {
-            // print stacktrace to console for debugging, then rethrow so global handler maps to INVALID_PASSWORD
-            ex.printStackTrace();
-            throw ex;
-        }
+        User user = userService.findByUsername(loginRequest.getUsername());
 
-        try {
-            String token = jwtUtil.generateToken(loginRequest.getUsername());
-            return new TokenResponse(token);
-        } catch (Exception e) {
-            System.err.println("[ERROR] Failed to generate JWT token for user=" + loginRequest.getUsername());
-            e.printStackTrace();
-            throw e;
+        if (!passwordHashingExecutor.matches(loginRequest.getPassword(), user.getPassword())) {
+            // mapped to INVALID_PASSWORD by GlobalExceptionHandler
+            throw new BadCredentialsException("Bad credentials");
         }
+
+        String token = jwtUtil.generateToken(user.getUsername(), user.getAuthorities());
+        return new TokenResponse(token);
     }
 
     @Override
     public void logout(String token) {
         blacklistedTokenService.addBlacklistedToken(token);
     }
-}
\ No newline at end of file
+}
@@ -1,46 +1,177 @@
 package com.dpp.ddp_study_management.service.impl;
 
-import com.dpp.ddp_study_management.model.BlacklistedToken;
-import com.dpp.ddp_study_management.repository.BlacklistedTokenRepository;
-import com.dpp.ddp_study_management.service.BlacklistedTokenService;
+import com.dpp.ddp_study_management.common.security.RevokedTokenBloomFilter;
 import com.dpp.ddp_study_management.common.util.JwtUtil;
-import lombok.RequiredArgsConstructor;
+import com.dpp.ddp_study_management.common.util.TokenHash;
+import com.dpp.ddp_study_management.service.BlacklistedTokenService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
+/**
+ * Danh sách token đã logout.
+ *
+ * Nguồn dữ liệu là Redis: mỗi token bị thu hồi là key auth:revoked:{hash} với TTL = thời gian sống còn lại
+ * của token, nên Redis tự dọn, không cần job cleanup. Mỗi node giữ thêm một Bloom filter trong bộ nhớ:
+ * token chưa bị thu hồi (trường hợp gần như mọi request) được trả lời ngay mà không I/O; chỉ khi Bloom filter
+ * báo "có thể" mới hỏi Redis để loại false positive.
+ *
+ * Logout trên một node được publish qua kênh auth:revoked để các node khác thêm vào Bloom filter ngay;
+ * resync định kỳ quét lại các key để bù message bị lỡ khi mất kết nối. Lần resync đầu được thử lại trong lúc
+ * khởi động (trước khi node nhận traffic); nếu Redis vẫn không trả lời thì Bloom filter rỗng không được tin:
+ * mọi token được hỏi thẳng Redis cho tới khi có một lần resync thành công.
+ * Bloom filter không xóa được phần tử nên có hai thế hệ: sau mỗi rotate-interval (>= thời hạn token)
+ * thế hệ cũ bị bỏ, mọi token trong đó đều đã hết hạn.
+ */
 @Service
-@RequiredArgsConstructor
-public class BlacklistedTokenServiceImpl implements BlacklistedTokenService {
+@Slf4j
+public class BlacklistedTokenServiceImpl implements BlacklistedTokenService, MessageListener {
+
+    static final String KEY_PREFIX = "auth:revoked:";
+    static final String CHANNEL = "auth:revoked";
 
-    private final BlacklistedTokenRepository blacklistedTokenRepository;
+    private static final int STARTUP_RESYNC_ATTEMPTS = 5;
+    private static final Duration STARTUP_RESYNC_BACKOFF = Duration.ofSeconds(1);
 
+    private final StringRedisTemplate redis;
     private final JwtUtil jwtUtil;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile RevokedTokenBloomFilter current;
+    private volatile RevokedTokenBloomFilter previous;
+    // False until one full SCAN has loaded the filter; until then the filter cannot answer "not revoked"
+    private volatile boolean synced;
+
+    public BlacklistedTokenServiceImpl(StringRedisTemplate redis,
+                                       JwtUtil jwtUtil,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       @Value("${study.auth.revocation.expected-per-interval:100000}") int expectedRevocations,
+                                       @Value("${study.auth.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redis = redis;
+        this.jwtUtil = jwtUtil;
+        this.listenerContainer = listenerContainer;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = newFilter();
+        this.previous = newFilter();
+    }
+
+    @PostConstruct
+    void subscribe() throws InterruptedException {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        // Runs during context startup, so the node is not ready before the filter is loaded (or we give up)
+        Duration backoff = STARTUP_RESYNC_BACKOFF;
+        for (int attempt = 1; attempt <= STARTUP_RESYNC_ATTEMPTS; attempt++) {
+            if (loadFromRedis()) {
+                return;
+            }
+            if (attempt < STARTUP_RESYNC_ATTEMPTS) {
+                Thread.sleep(backoff.toMillis());
+                backoff = backoff.multipliedBy(2);
+            }
+        }
+        log.error("Revoked token filter could not be loaded after {} attempts, "
+                + "checking every token against Redis until a resync succeeds", STARTUP_RESYNC_ATTEMPTS);
+    }
 
     @Override
     public void addBlacklistedToken(String token) {
-        Date expirationDate = jwtUtil.parseDate(token);
-        LocalDateTime expiresAt = expirationDate.toInstant().minusMillis(59 * 60000)
-                .atZone(ZoneId.systemDefault())
-                .toLocalDateTime();
-
-        BlacklistedToken blacklistedToken = new BlacklistedToken(token, expiresAt);
-        blacklistedTokenRepository.save(blacklistedToken);
+        long ttlMillis = jwtUtil.parseDate(token).getTime() - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        String tokenHash = TokenHash.of(token);
+        redis.opsForValue().set(KEY_PREFIX + tokenHash, "1", Duration.ofMillis(ttlMillis));
+        current.add(tokenHash);
+        redis.convertAndSend(CHANNEL, tokenHash);
     }
 
     @Override
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokenRepository.existsByToken(token);
+        return isTokenHashBlacklisted(TokenHash.of(token));
+    }
+
+    @Override
+    public boolean isTokenHashBlacklisted(String tokenHash) {
+        if (synced && !current.mightContain(tokenHash) && !previous.mightContain(tokenHash)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redis.hasKey(KEY_PREFIX + tokenHash));
+        } catch (RuntimeException e) {
+            // Reached for tokens the filter has seen revoked (or a rare false positive), or before the filter
+            // was ever loaded: fail closed
+            log.warn("Cannot confirm token revocation in Redis, rejecting token: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // Logout on another node (or this one)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        current.add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(fixedRateString = "${study.auth.revocation.rotate-interval-ms:3600000}",
+            initialDelayString = "${study.auth.revocation.rotate-interval-ms:3600000}")
+    void rotate() {
+        previous = current;
+        current = newFilter();
+    }
+
+    @Scheduled(fixedDelayString = "${study.auth.revocation.resync-interval-ms:60000}",
+            initialDelayString = "${study.auth.revocation.resync-interval-ms:60000}")
+    void resync() {
+        loadFromRedis();
+    }
+
+    private boolean loadFromRedis() {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(KEY_PREFIX + "*")
+                .count(1000)
+                .build();
+        try {
+            Integer seen = redis.execute((RedisCallback<Integer>) connection -> {
+                int count = 0;
+                try (Cursor<byte[]> keys = connection.keyCommands().scan(options)) {
+                    while (keys.hasNext()) {
+                        String key = new String(keys.next(), StandardCharsets.UTF_8);
+                        current.add(key.substring(KEY_PREFIX.length()));
+                        count++;
+                    }
+                }
+                return count;
+            });
+            if (synced) {
+                log.debug("Revoked token filter resynced, {} active revocations", seen);
+            } else {
+                log.info("Revoked token filter loaded, {} active revocations", seen);
+                synced = true;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Revoked token resync failed: {}", e.getMessage());
+            return false;
+        }
     }
 
-    // Scheduled task to remove expired token
-    @Scheduled(fixedRate = 1200000) // Automatically execute every 20 minutes
-    @Transactional
-    protected void cleanupExpiredTokens() {
-        blacklistedTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+    private RevokedTokenBloomFilter newFilter() {
+        return new RevokedTokenBloomFilter(expectedRevocations, falsePositiveRate);
     }
 }
@@ -1,10 +1,10 @@
 package com.dpp.ddp_study_management.service.impl;
 
 import com.dpp.ddp_study_management.common.dto.PageResponse;
-import com.dpp.ddp_study_management.common.dto.PaginationInfo;
 import com.dpp.ddp_study_management.common.dto.SearchRequest;
 import com.dpp.ddp_study_management.common.exception.AppException;
 import com.dpp.ddp_study_management.common.exception.ErrorCode;
+import com.dpp.ddp_study_management.common.util.Pagination;
 import com.dpp.ddp_study_management.dto.request.registration.SubjectRegistrationCreationRequest;
 import com.dpp.ddp_study_management.dto.response.registration.SubjectRegistrationForAdminResponse;
 import com.dpp.ddp_study_management.dto.response.registration.SubjectRegistrationForMenteeResponse;
@@ -19,17 +19,36 @@ import com.dpp.ddp_study_management.repository.UserRepository;
 import com.dpp.ddp_study_management.service.SubjectRegistrationService;
 import com.dpp.ddp_study_management.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class SubjectRegistrationServiceImpl implements SubjectRegistrationService {
 
+    /**
+     * Tên field sort mà API nhận (field của response DTO) -> đường dẫn thuộc tính trên entity.
+     * Chỉ những field có trong map mới được đưa vào ORDER BY.
+     */
+    private static final Map<String, String> SORT_PROPERTIES = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("registerDate", "registerDate"),
+            Map.entry("startDate", "startDate"),
+            Map.entry("endDate", "endDate"),
+            Map.entry("subjectId", "subject.id"),
+            Map.entry("subjectName", "subject.name"),
+            Map.entry("subjectDescription", "subject.description"),
+            Map.entry("menteeId", "mentee.id"),
+            Map.entry("menteeUsername", "mentee.username"),
+            Map.entry("menteeName", "mentee.name")
+    );
+
     private final UserService userService;
     private final SubjectRegistrationRepository subjectRegistrationRepository;
     private final SubjectRepository subjectRepository;
@@ -59,18 +78,17 @@ public class SubjectRegistrationServiceImpl implements SubjectRegistrationServic
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<List<SubjectRegistrationForAdminResponse>> searchRegistrationsByAdmin(SearchRequest<SubjectRegistrationForAdminResponse> request) {
         User currentUser = userService.getCurrentUser();
         if (!hasRole(currentUser, ERole.ADMIN)) {
             throw new AppException(ErrorCode.UNAUTHORIZED_ACCESS);
         }
-        String searchTerm = StringUtils.hasText(request.getSearch()) ? request.getSearch().trim() : null;
-        String sortBy = StringUtils.hasText(request.getName()) ? request.getName() : "id";
-        String sortDirection = StringUtils.hasText(request.getSort()) ? request.getSort() : "asc";
+        String searchTerm = StringUtils.hasText(request.getSearch()) ? request.getSearch().trim().toLowerCase() : null;
 
-        List<SubjectRegistrationForAdminResponse> allRegistrations = subjectRegistrationRepository.searchForAdmin(searchTerm, sortBy, sortDirection);
+        Page<SubjectRegistrationForAdminResponse> registrationPage = subjectRegistrationRepository.searchForAdmin(searchTerm, Pagination.toPageable(request, SORT_PROPERTIES));
 
-        return paginateList(allRegistrations, request.getPage(), request.getSize());
+        return Pagination.toPageResponse(registrationPage);
     }
 
     @Override
@@ -79,43 +97,17 @@ public class SubjectRegistrationServiceImpl implements SubjectRegistrationServic
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<List<SubjectRegistrationForMenteeResponse>> searchRegistrationsByMentee(SearchRequest<SubjectRegistrationForMenteeResponse> request) {
         User currentUser = userService.getCurrentUser();
         if (!hasRole(currentUser, ERole.MENTEE)) {
             throw new AppException(ErrorCode.UNAUTHORIZED_ACCESS);
         }
-        String searchTerm = StringUtils.hasText(request.getSearch()) ? request.getSearch().trim() : null;
-        String sortBy = StringUtils.hasText(request.getName()) ? request.getName() : "id";
-        String sortDirection = StringUtils.hasText(request.getSort()) ? request.getSort() : "asc";
-
-        List<SubjectRegistrationForMenteeResponse> allRegistrations = subjectRegistrationRepository.searchForMentee(searchTerm, currentUser.getId(), sortBy, sortDirection);
-
-        return paginateList(allRegistrations, request.getPage(), request.getSize());
-    }
-
-    private <T> PageResponse<List<T>> paginateList(List<T> list, int page, int size) {
-        int total = list.size();
-        int totalPages = (int) Math.ceil((double) total / size);
-
-        int fromIndex = page * size;
-        if (fromIndex > total) {
-            fromIndex = total;
-        }
-        int toIndex = Math.min(fromIndex + size, total);
-
-        List<T> pagedContent = list.subList(fromIndex, toIndex);
-
-        PaginationInfo paginationInfo = new PaginationInfo();
-        paginationInfo.setPage(page);
-        paginationInfo.setLimit(size);
-        paginationInfo.setTotal(total);
-        paginationInfo.setTotalPages(totalPages);
+        String searchTerm = StringUtils.hasText(request.getSearch()) ? request.getSearch().trim().toLowerCase() : null;
 
-        PageResponse<List<T>> pageResponse = new PageResponse<>();
-        pageResponse.setPagination(paginationInfo);
-        pageResponse.setContent(pagedContent);
+        Page<SubjectRegistrationForMenteeResponse> registrationPage = subjectRegistrationRepository.searchForMentee(searchTerm, currentUser.getId(), Pagination.toPageable(request, SORT_PROPERTIES));
 
-        return pageResponse;
+        return Pagination.toPageResponse(registrationPage);
     }
 
     private boolean hasRole(User user, ERole role) {
@@ -5,6 +5,7 @@ import com.dpp.ddp_study_management.common.dto.PaginationInfo;
 import com.dpp.ddp_study_management.common.dto.SearchRequest;
 import com.dpp.ddp_study_management.common.exception.AppException;
 import com.dpp.ddp_study_management.common.exception.ErrorCode;
+import com.dpp.ddp_study_management.common.util.SearchText;
 import com.dpp.ddp_study_management.dto.request.user.UserCreationRequest;
 import com.dpp.ddp_study_management.dto.request.user.UserUpdateRequest;
 import com.dpp.ddp_study_management.dto.response.user.MentorResponse;
@@ -15,7 +16,7 @@ import com.dpp.ddp_study_management.model.Role;
 import com.dpp.ddp_study_management.model.User;
 import com.dpp.ddp_study_management.repository.*;
 import com.dpp.ddp_study_management.service.UserService;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +27,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -146,11 +148,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<List<UserResponse>> findAllUsers(SearchRequest<User> request) {
         Sort sort = Sort.by(Sort.Direction.fromString(request.getSort()), request.getName());
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
 
-        Page<User> userPage = userRepository.findMentorsOrMenteesWithSearch(request.getSearch(), pageable);
+        Page<User> userPage = userRepository.findMentorsOrMenteesWithSearch(SearchText.normalize(request.getSearch()), pageable);
 
         List<UserResponse> userResponses = userPage.getContent().stream()
                 .map(this::convertToUserResponse)
@@ -167,7 +170,7 @@ public class UserServiceImpl implements UserService {
         User user = getCurrentUser();
 
         Page<User> userPage = userRepository.findAvailableMentorsForMenteeWithSearch(user.getId(),
-                request.getSearch(), pageable);
+                SearchText.normalize(request.getSearch()), pageable);
 
         List<MentorResponse> mentorResponses = userPage.getContent().stream()
                 .map(this::convertToMentorResponse)
@@ -192,7 +195,7 @@ public class UserServiceImpl implements UserService {
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
 
         Page<User> userPage = userRepository.findAvailableMentorsForSubjectWithSearch(subjectId,
-                request.getSearch(), pageable);
+                SearchText.normalize(request.getSearch()), pageable);
 
         List<MentorResponse> mentorResponses = userPage.getContent().stream()
                 .map(this::convertToMentorResponse)
@@ -327,9 +330,23 @@ public class UserServiceImpl implements UserService {
         return Mono.fromCallable(() ->
                 userRepository.findById(id)
                         .map(this::mapToResponse)
-                        .orElseThrow(() -> new RuntimeException("User not found"))
+                        // empty Mono -> gRPC NOT_FOUND, so callers can tell "missing" from "failed"
+                        .orElse(null)
         );
     }
+
+    @Override
+    public Mono<List<UserResponse>> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        return Mono.fromCallable(() ->
+                userRepository.findAllByIdIn(ids).stream()
+                        .map(this::mapToResponse)
+                        .toList()
+        );
+    }
+
     private UserResponse mapToResponse(User user) {
         UserResponse res = new UserResponse();
         res.setId(user.getId());